@@ -0,0 +1,78 @@
+package execution;
+
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService;
+import org.junit.platform.engine.support.hierarchical.ResourceLock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.platform.engine.support.hierarchical.Node.ExecutionMode.SAME_THREAD;
+
+/**
+ * Gives every concurrent test and container its own virtual thread. Scoping is per container, not per test: the
+ * children of a container are forked as subtasks of one {@link StructuredTaskScope} that closes before the container
+ * finishes, so no test outlives the class that declared it and a container's teardown never races its tests. Threads
+ * a test starts itself are not part of that scope. Dynamic tests arrive through {@link #submit(TestTask)} and run
+ * unscoped; Jupiter awaits them before the factory method's teardown. Tests that must run on the same thread run on
+ * the caller's thread while the concurrent siblings are in flight, as in Jupiter's own executor.
+ * <p>
+ * Blocking in a test (HTTP calls, email waits, lock acquisition) parks the virtual thread and frees its carrier,
+ * so thousands of I/O-bound tests need only as many platform threads as there are cores.
+ */
+class VirtualThreadExecutorService implements HierarchicalTestExecutorService {
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("junit-virtual-", 0).factory();
+    // Dynamic tests arrive one by one through submit, without a scope to fork into.
+    private final ExecutorService dynamicTests = Executors.newThreadPerTaskExecutor(threadFactory);
+
+    @Override
+    public Future<Void> submit(TestTask testTask) {
+        if (testTask.getExecutionMode() == SAME_THREAD) {
+            execute(testTask);
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> execute(testTask), dynamicTests);
+    }
+
+    @Override
+    public void invokeAll(List<? extends TestTask> testTasks) {
+        var sameThreadTasks = new ArrayList<TestTask>();
+        try (var scope = new StructuredTaskScope<Void>("junit-invokeAll", threadFactory)) {
+            for (var testTask : testTasks) {
+                if (testTask.getExecutionMode() == SAME_THREAD) {
+                    sameThreadTasks.add(testTask);
+                } else {
+                    scope.fork(() -> {
+                        execute(testTask);
+                        return null;
+                    });
+                }
+            }
+
+            sameThreadTasks.forEach(this::execute);
+            scope.join();
+        } catch (InterruptedException e) {
+            // Closing the scope above has already cancelled and awaited the remaining tests.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        dynamicTests.close();
+    }
+
+    private void execute(TestTask testTask) {
+        ResourceLock resourceLock = testTask.getResourceLock();
+        try (ResourceLock ignored = resourceLock.acquire()) {
+            testTask.execute();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
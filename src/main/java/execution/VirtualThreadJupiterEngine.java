@@ -0,0 +1,67 @@
+package execution;
+
+import org.junit.jupiter.engine.JupiterTestEngine;
+import org.junit.jupiter.engine.descriptor.JupiterEngineDescriptor;
+import org.junit.jupiter.engine.execution.JupiterEngineExecutionContext;
+import org.junit.jupiter.engine.support.JupiterThrowableCollectorFactory;
+import org.junit.platform.engine.EngineDiscoveryRequest;
+import org.junit.platform.engine.ExecutionRequest;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestEngine;
+import org.junit.platform.engine.support.hierarchical.HierarchicalTestExecutorService;
+import org.junit.platform.engine.support.hierarchical.ThrowableCollector;
+
+import java.util.Optional;
+
+/**
+ * Runs Jupiter tests with {@link VirtualThreadExecutorService} instead of Jupiter's fork-join pool. Discovery, extensions
+ * and lifecycle are Jupiter's own; only the threads the tests run on differ.
+ * <p>
+ * The engine is always on the classpath, so it stays empty unless {@code virtualthreads.enabled=true}; the
+ * {@code virtual-threads} Maven profile sets it and excludes the regular Jupiter engine, so tests do not run twice.
+ */
+public class VirtualThreadJupiterEngine extends HierarchicalTestEngine<JupiterEngineExecutionContext> {
+    public static final String ENGINE_ID = "junit-jupiter-virtual-threads";
+    static final String ENABLED_PARAMETER = "virtualthreads.enabled";
+
+    private final JupiterTestEngine jupiter = new JupiterTestEngine();
+
+    @Override
+    public String getId() {
+        return ENGINE_ID;
+    }
+
+    @Override
+    public Optional<String> getGroupId() {
+        return Optional.of("org.junit.jupiter");
+    }
+
+    @Override
+    public TestDescriptor discover(EngineDiscoveryRequest discoveryRequest, UniqueId uniqueId) {
+        if (!discoveryRequest.getConfigurationParameters().getBoolean(ENABLED_PARAMETER).orElse(false)) {
+            return new EngineDescriptor(uniqueId, "JUnit Jupiter on virtual threads (disabled)");
+        }
+        return jupiter.discover(discoveryRequest, uniqueId);
+    }
+
+    @Override
+    protected HierarchicalTestExecutorService createExecutorService(ExecutionRequest request) {
+        return new VirtualThreadExecutorService();
+    }
+
+    @Override
+    protected ThrowableCollector.Factory createThrowableCollectorFactory(ExecutionRequest request) {
+        return JupiterThrowableCollectorFactory::createThrowableCollector;
+    }
+
+    @Override
+    protected JupiterEngineExecutionContext createExecutionContext(ExecutionRequest request) {
+        // The disabled engine has a plain descriptor and no children, so there is no context to build.
+        if (!(request.getRootTestDescriptor() instanceof JupiterEngineDescriptor engineDescriptor)) {
+            return null;
+        }
+        return new JupiterEngineExecutionContext(request.getEngineExecutionListener(), engineDescriptor.getConfiguration());
+    }
+}
@@ -0,0 +1,99 @@
+package extensions;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import perf.TestContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps browser tests off virtual threads when the suite runs on the virtual-thread engine. Every test without the
+ * {@value #API_TAG} tag takes one of {@code browser.poolSize} slots for its whole lifecycle, and its lifecycle methods
+ * and body run on a platform pool of the same size, so no more browsers are open than the machine can drive.
+ * On platform threads, i.e. the regular Jupiter engine, it does nothing.
+ * <p>
+ * Registered through extension auto-detection, which the {@code virtual-threads} profile enables.
+ */
+public class BrowserPoolExtension implements BeforeEachCallback, AfterEachCallback, InvocationInterceptor {
+    public static final String API_TAG = "api";
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(BrowserPoolExtension.class);
+    private static final int POOL_SIZE = Integer.getInteger("browser.poolSize", Runtime.getRuntime().availableProcessors());
+    private static final Semaphore slots = new Semaphore(POOL_SIZE, true);
+    private static final ExecutorService platformPool = Executors.newFixedThreadPool(POOL_SIZE, Thread.ofPlatform().name("browser-test-", 0).daemon().factory());
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws InterruptedException {
+        if (isPooled(context)) {
+            slots.acquire();
+            context.getStore(NAMESPACE).put(Semaphore.class, slots);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getStore(NAMESPACE).remove(Semaphore.class) != null) {
+            slots.release();
+        }
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                          ExtensionContext extensionContext) throws Throwable {
+        proceed(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        proceed(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        proceed(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                         ExtensionContext extensionContext) throws Throwable {
+        proceed(invocation, extensionContext);
+    }
+
+    private static <T> T proceed(Invocation<T> invocation, ExtensionContext context) throws Throwable {
+        if (!isPooled(context)) {
+            return invocation.proceed();
+        }
+
+        var result = new CompletableFuture<T>();
+        String testName = TestContext.currentTest();
+        platformPool.execute(() -> {
+            // Pool threads outlive the test that created them, so the test name is handed over explicitly.
+            TestContext.enter(testName);
+            try {
+                result.complete(invocation.proceed());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                TestContext.leave();
+            }
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isPooled(ExtensionContext context) {
+        return Thread.currentThread().isVirtual() && !context.getTags().contains(API_TAG);
+    }
+}
@@ -0,0 +1,64 @@
+package extensions;
+
+import infrastructure.ForensicsRecorder;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.commons.support.ReflectionSupport;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dumps the {@link ForensicsRecorder} buffers of the test's browsers to {@code target/forensics} when the test fails.
+ * It runs right after the test method, before {@code @AfterEach} quits the browser, and only waits for the screenshot
+ * and DOM snapshot to be taken; the files are written in the background.
+ */
+public class FailureForensicsExtension implements AfterTestExecutionCallback {
+    private static final Path OUTPUT_DIR = Path.of(System.getProperty("forensics.outputDir", "target/forensics"));
+    private static final long CAPTURE_TIMEOUT_SECONDS = Long.getLong("forensics.captureTimeoutSeconds", 10L);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) throws Exception {
+        if (context.getExecutionException().isEmpty()) {
+            return;
+        }
+
+        String testName = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        Path testDirectory = OUTPUT_DIR.resolve(testName + "-" + LocalDateTime.now().format(TIMESTAMP));
+        int index = 0;
+        for (var driver : driversOf(context)) {
+            var recorder = ForensicsRecorder.of(driver);
+            if (recorder == null) {
+                continue;
+            }
+            try {
+                recorder.captureFailure(testDirectory.resolve("driver-" + index++)).get(CAPTURE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                System.err.println("Failure forensics for " + testName + " were not captured: " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<WebDriver> driversOf(ExtensionContext context) throws IllegalAccessException {
+        var drivers = new ArrayList<WebDriver>();
+        Object testInstance = context.getRequiredTestInstance();
+        List<Field> fields = ReflectionSupport.findFields(testInstance.getClass(),
+                field -> WebDriver.class.isAssignableFrom(field.getType()), HierarchyTraversalMode.TOP_DOWN);
+        for (var field : fields) {
+            field.setAccessible(true);
+            drivers.add((WebDriver) field.get(testInstance));
+        }
+        ParallelSetupExtension.startedDriver(context).ifPresent(drivers::add);
+        drivers.removeIf(Objects::isNull);
+        return drivers;
+    }
+}
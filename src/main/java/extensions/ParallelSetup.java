@@ -0,0 +1,45 @@
+package extensions;
+
+import models.UserStatus;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares what {@link ParallelSetupExtension} should prepare for a test. Every step starts before the test body runs,
+ * in parallel, and the test receives them as futures through a {@link TestSetup} parameter.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ParallelSetup {
+    boolean browser() default true;
+
+    UserKind user() default UserKind.NONE;
+
+    UserStatus status() default UserStatus.ACTIVE;
+
+    /**
+     * Creates a standalone inbox, independent of the one that comes with a real-email user.
+     */
+    boolean inbox() default false;
+
+    /**
+     * Generates the auth cookie for the provisioned user as soon as it exists.
+     */
+    boolean authCookie() default false;
+
+    enum UserKind {
+        NONE,
+        DEFAULT,
+        REAL_EMAIL,
+        /**
+         * A real-email user leased from {@link factories.TestUserRegistry} and given back after the test, or invalidated
+         * when the test fails. Only for tests that leave the account unchanged.
+         */
+        POOLED_REAL_EMAIL,
+        REAL_EMAIL_2FA,
+        REGISTRATION_DTO
+    }
+}
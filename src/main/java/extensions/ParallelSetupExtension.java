@@ -0,0 +1,113 @@
+package extensions;
+
+import com.mailslurp.models.InboxDto;
+import factories.TestUserFactory;
+import factories.TestUserRegistry;
+import infrastructure.AuthBypassService;
+import infrastructure.DriverFactory;
+import infrastructure.MailslurpService;
+import models.TestUser;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Starts browser creation, user provisioning, inbox creation and auth-cookie generation on virtual threads
+ * before the test body runs, so setup takes as long as the slowest step instead of the sum of all of them.
+ * The test declares the steps with {@link ParallelSetup} and takes a {@link TestSetup} parameter.
+ */
+public class ParallelSetupExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(ParallelSetupExtension.class);
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        var setup = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ParallelSetup.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), ParallelSetup.class))
+                .orElseThrow(() -> new ExtensionConfigurationException("@ParallelSetup is missing on " + context.getDisplayName()));
+
+        if (setup.authCookie() && setup.user() == ParallelSetup.UserKind.NONE) {
+            throw new ExtensionConfigurationException("@ParallelSetup(authCookie = true) needs a provisioned user");
+        }
+
+        CompletableFuture<WebDriver> driver = setup.browser() ? start(DriverFactory::createChromeDriver) : completedNull();
+        CompletableFuture<TestUser> user = switch (setup.user()) {
+            case NONE -> completedNull();
+            case DEFAULT -> start(() -> TestUserFactory.createDefault(setup.status()));
+            case REAL_EMAIL -> start(() -> TestUserFactory.createDefaultWithRealEmail(setup.status()));
+            case POOLED_REAL_EMAIL -> start(() -> TestUserFactory.acquireDefaultWithRealEmail(setup.status()));
+            case REAL_EMAIL_2FA -> start(TestUserFactory::createDefault2FAWithRealEmail);
+            case REGISTRATION_DTO -> start(TestUserFactory::createTestUserDto);
+        };
+        CompletableFuture<InboxDto> inbox = setup.inbox() ? start(() -> MailslurpService.createInbox(null)) : completedNull();
+        CompletableFuture<String> authCookie = setup.authCookie()
+                ? user.thenApplyAsync(u -> AuthBypassService.generateAuthCookie(u.getUsername(), u.getPassword(), String.valueOf(u.getId())), executor)
+                : completedNull();
+
+        context.getStore(NAMESPACE).put(TestSetup.class, new TestSetup(driver, user, inbox, authCookie));
+        context.getStore(NAMESPACE).put(ParallelSetup.UserKind.class, setup.user());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var setup = context.getStore(NAMESPACE).remove(TestSetup.class, TestSetup.class);
+        if (setup == null) {
+            return;
+        }
+
+        try {
+            // Wait for the browser even when the test never used it, so no Chrome process outlives the test.
+            var driver = setup.driver().exceptionally(e -> null).join();
+            if (driver != null) {
+                driver.quit();
+            }
+        } finally {
+            var userKind = context.getStore(NAMESPACE).remove(ParallelSetup.UserKind.class, ParallelSetup.UserKind.class);
+            var user = setup.user().exceptionally(e -> null).join();
+            if (userKind == ParallelSetup.UserKind.POOLED_REAL_EMAIL && user != null) {
+                if (context.getExecutionException().isPresent()) {
+                    // A user in an unknown state is deleted with the run instead of going back to the pool.
+                    TestUserRegistry.invalidate(user);
+                }
+                TestUserRegistry.giveBack(user);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == TestSetup.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(TestSetup.class, TestSetup.class);
+    }
+
+    static Optional<WebDriver> startedDriver(ExtensionContext context) {
+        var setup = context.getStore(NAMESPACE).get(TestSetup.class, TestSetup.class);
+        if (setup == null || !setup.driver().isDone() || setup.driver().isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(setup.driver().join());
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<T> step) {
+        return CompletableFuture.supplyAsync(step, executor);
+    }
+
+    private static <T> CompletableFuture<T> completedNull() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
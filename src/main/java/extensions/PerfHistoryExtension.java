@@ -0,0 +1,63 @@
+package extensions;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import perf.PerfRecorder;
+import utilities.TestKeys;
+
+/**
+ * Times the setup ({@code @BeforeEach} methods), body and teardown ({@code @AfterEach} methods) of every test and hands
+ * the durations of passing tests to {@link PerfRecorder}. Failed tests are left out, their timings say little about speed.
+ */
+public class PerfHistoryExtension implements BeforeEachCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PerfHistoryExtension.class);
+
+    private static class Timings {
+        long started;
+        long bodyStarted;
+        long bodyFinished;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        var timings = new Timings();
+        timings.started = System.nanoTime();
+        context.getStore(NAMESPACE).put(Timings.class, timings);
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        timings(context).bodyStarted = System.nanoTime();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        timings(context).bodyFinished = System.nanoTime();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var timings = timings(context);
+        long finished = System.nanoTime();
+        if (context.getExecutionException().isPresent() || timings.bodyFinished == 0) {
+            return;
+        }
+
+        String test = TestKeys.fromUniqueId(context.getUniqueId());
+        PerfRecorder.record(test, "setup", millis(timings.bodyStarted - timings.started));
+        PerfRecorder.record(test, "body", millis(timings.bodyFinished - timings.bodyStarted));
+        PerfRecorder.record(test, "teardown", millis(finished - timings.bodyFinished));
+        PerfRecorder.record(test, "total", millis(finished - timings.started));
+    }
+
+    private static Timings timings(ExtensionContext context) {
+        return context.getStore(NAMESPACE).get(Timings.class, Timings.class);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
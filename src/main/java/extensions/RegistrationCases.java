@@ -0,0 +1,38 @@
+package extensions;
+
+import factories.RegistrationDataSet;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Feeds a parameterized test with {@link RegistrationDataSet.RegistrationCase}s. The seed can be overridden with
+ * {@code -Dregistration.seed} to replay a run, and {@code -Dregistration.shard.index}/{@code -Dregistration.shard.count}
+ * split the cases between parallel workers.
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ArgumentsSource(RegistrationCasesProvider.class)
+public @interface RegistrationCases {
+    RegistrationDataSet.Mode mode() default RegistrationDataSet.Mode.SINGLE_FAULT;
+
+    long seed() default 1L;
+
+    /**
+     * How many times every combination is generated, each time with different names, emails and passwords.
+     */
+    long repetitions() default 1;
+
+    Validity validity() default Validity.ALL;
+
+    long limit() default Long.MAX_VALUE;
+
+    enum Validity {
+        ALL,
+        VALID,
+        INVALID
+    }
+}
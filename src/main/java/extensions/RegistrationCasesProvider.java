@@ -0,0 +1,36 @@
+package extensions;
+
+import factories.RegistrationDataSet;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+import java.util.stream.Stream;
+
+public class RegistrationCasesProvider implements ArgumentsProvider, AnnotationConsumer<RegistrationCases> {
+    private RegistrationCases cases;
+
+    @Override
+    public void accept(RegistrationCases cases) {
+        this.cases = cases;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        long seed = Long.getLong("registration.seed", cases.seed());
+        int shardIndex = Integer.getInteger("registration.shard.index", 0);
+        int shardCount = Integer.getInteger("registration.shard.count", 1);
+
+        // The stream stays lazy, JUnit pulls one case per invocation.
+        return new RegistrationDataSet(seed, cases.mode(), cases.repetitions())
+                .shard(shardIndex, shardCount)
+                .filter(registrationCase -> switch (cases.validity()) {
+                    case ALL -> true;
+                    case VALID -> registrationCase.isValid();
+                    case INVALID -> !registrationCase.isValid();
+                })
+                .limit(cases.limit())
+                .map(Arguments::of);
+    }
+}
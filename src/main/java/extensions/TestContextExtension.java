@@ -0,0 +1,34 @@
+package extensions;
+
+import infrastructure.TestResourceTracker;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import perf.TestContext;
+
+/**
+ * Publishes the running test's name through {@link TestContext}, so flight recorder events name the test they waited for.
+ * Register it before extensions that start work for the test, e.g. {@link ParallelSetupExtension}.
+ * Once the test and the other extensions' teardown are done, the users and inboxes it created are handed to
+ * {@link TestResourceTracker} for deletion.
+ */
+public class TestContextExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String name = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        if (context.getUniqueId().contains("[test-template-invocation:")) {
+            name += " " + context.getDisplayName();
+        }
+        TestContext.enter(name);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        String name = TestContext.currentTest();
+        TestContext.leave();
+        if (name != null) {
+            TestResourceTracker.testFinished(name);
+        }
+    }
+}
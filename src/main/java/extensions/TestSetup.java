@@ -0,0 +1,16 @@
+package extensions;
+
+import com.mailslurp.models.InboxDto;
+import models.TestUser;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Setup steps started by {@link ParallelSetupExtension}. Steps that were not requested complete with {@code null}.
+ */
+public record TestSetup(CompletableFuture<WebDriver> driver,
+                        CompletableFuture<TestUser> user,
+                        CompletableFuture<InboxDto> inbox,
+                        CompletableFuture<String> authCookie) {
+}
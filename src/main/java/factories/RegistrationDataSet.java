@@ -0,0 +1,234 @@
+package factories;
+
+import models.User;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Lazily generated registration users, valid ones and boundary/invalid variants of each field.
+ * Case {@code i} only depends on the seed and {@code i}, so any slice of the data set can be generated on any worker
+ * without producing the cases before it.
+ * <p>
+ * {@link Mode#SINGLE_FAULT} yields the valid user plus one case per invalid variant (the registration checklist).
+ * {@link Mode#CARTESIAN} walks every combination of field variants, repeated {@code repetitions} times with fresh data.
+ * <p>
+ * The data set only generates form input. Valid emails use the reserved {@code example.com} domain, so a test that
+ * needs the activation email swaps in an inbox address, and a test whose registration the app accepts has to hand
+ * the new account to {@link infrastructure.TestResourceTracker} itself.
+ */
+public class RegistrationDataSet {
+    // Assumed limits, the app's validation rules are not part of this repository. Update them when the form's rules are known.
+    public static final int USERNAME_MIN_LENGTH = 4;
+    public static final int USERNAME_MAX_LENGTH = 20;
+    public static final int PASSWORD_MIN_LENGTH = 8;
+    public static final int PASSWORD_MAX_LENGTH = 64;
+    public static final int PHONE_MIN_LENGTH = 10;
+    public static final int PHONE_MAX_LENGTH = 15;
+    public static final String EXISTING_USERNAME = "johnDoe";
+    public static final String EXISTING_EMAIL = "john@example.com";
+
+    private static final String[] FIRST_NAMES = {"Anna", "Boris", "Chen", "Dana", "Elif", "Farid", "Greta", "Hugo", "Ines", "Jonas"};
+    private static final String[] LAST_NAMES = {"Novak", "Ivanova", "Smith", "Garcia", "Kowalski", "Tanaka", "Muller", "Rossi"};
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String DIGITS = "0123456789";
+
+    public enum Mode {
+        SINGLE_FAULT,
+        CARTESIAN
+    }
+
+    public enum UsernameVariant { VALID, MIN_LENGTH, MAX_LENGTH, BELOW_MIN_LENGTH, ABOVE_MAX_LENGTH, SPECIAL_CHARACTERS, MISSING, EXISTING }
+
+    public enum EmailVariant { VALID, INVALID_FORMAT, MISSING, EXISTING }
+
+    public enum PhoneVariant { VALID, BELOW_MIN_LENGTH, ABOVE_MAX_LENGTH, ALPHABETS_OR_SPECIAL_CHARACTERS, MISSING }
+
+    public enum PasswordVariant { VALID, BELOW_MIN_LENGTH, ABOVE_MAX_LENGTH, WITHOUT_UPPERCASE, WITHOUT_LOWERCASE, WITHOUT_NUMERIC }
+
+    public enum ConfirmationVariant { MATCHING, MISMATCHED }
+
+    public record RegistrationCase(long index, UsernameVariant username, EmailVariant email, PhoneVariant phone,
+                                   PasswordVariant password, ConfirmationVariant confirmation, User user) {
+        public boolean isValid() {
+            return (username == UsernameVariant.VALID || username == UsernameVariant.MIN_LENGTH || username == UsernameVariant.MAX_LENGTH)
+                    && email == EmailVariant.VALID
+                    && phone == PhoneVariant.VALID
+                    && password == PasswordVariant.VALID
+                    && confirmation == ConfirmationVariant.MATCHING;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " username=" + username + " email=" + email + " phone=" + phone
+                    + " password=" + password + " confirmation=" + confirmation + (isValid() ? " (valid)" : " (invalid)");
+        }
+    }
+
+    private static final int[] RADIX = {
+            UsernameVariant.values().length,
+            EmailVariant.values().length,
+            PhoneVariant.values().length,
+            PasswordVariant.values().length,
+            ConfirmationVariant.values().length
+    };
+
+    private final long seed;
+    private final Mode mode;
+    private final long repetitions;
+
+    public RegistrationDataSet(long seed, Mode mode, long repetitions) {
+        this.seed = seed;
+        this.mode = mode;
+        this.repetitions = Math.max(1, repetitions);
+    }
+
+    public long size() {
+        return distinctCases() * repetitions;
+    }
+
+    public Stream<RegistrationCase> stream() {
+        return shard(0, 1);
+    }
+
+    /**
+     * Cases {@code shardIndex, shardIndex + shardCount, ...}, so parallel workers split the data set without coordinating.
+     *
+     * @throws IllegalArgumentException unless {@code shardCount > 0} and {@code 0 <= shardIndex < shardCount}
+     */
+    public Stream<RegistrationCase> shard(int shardIndex, int shardCount) {
+        if (shardCount <= 0 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardCount
+                    + ", expected shardCount > 0 and 0 <= shardIndex < shardCount");
+        }
+        long size = size();
+        return LongStream.iterate(shardIndex, index -> index < size, index -> index + shardCount)
+                .mapToObj(this::caseAt);
+    }
+
+    public RegistrationCase caseAt(long index) {
+        int[] variants = variantsOf(index % distinctCases());
+        var random = new SplittableRandom(mix(seed + index * 0x9E3779B97F4A7C15L));
+        var username = UsernameVariant.values()[variants[0]];
+        var email = EmailVariant.values()[variants[1]];
+        var phone = PhoneVariant.values()[variants[2]];
+        var password = PasswordVariant.values()[variants[3]];
+        var confirmation = ConfirmationVariant.values()[variants[4]];
+
+        var user = new User();
+        user.setFirstName(pick(random, FIRST_NAMES));
+        user.setLastName(pick(random, LAST_NAMES));
+        user.setUserName(username(username, random));
+        user.setEmail(email(email, index, random));
+        user.setTelephone(phone(phone, random));
+        String passwordValue = password(password, random);
+        user.setPassword(passwordValue);
+        user.setPasswordConfirm(confirmation == ConfirmationVariant.MATCHING ? passwordValue : passwordValue + "x");
+        user.setAgreedPrivacyPolicy(true);
+        user.setShouldSubscribe(false);
+        return new RegistrationCase(index, username, email, phone, password, confirmation, user);
+    }
+
+    private long distinctCases() {
+        if (mode == Mode.SINGLE_FAULT) {
+            long cases = 1;
+            for (int radix : RADIX) {
+                cases += radix - 1;
+            }
+            return cases;
+        }
+
+        long cases = 1;
+        for (int radix : RADIX) {
+            cases *= radix;
+        }
+        return cases;
+    }
+
+    private int[] variantsOf(long caseIndex) {
+        int[] variants = new int[RADIX.length];
+        if (mode == Mode.SINGLE_FAULT) {
+            // Case 0 is the valid user, then each field in turn takes each of its non-default variants.
+            long remaining = caseIndex - 1;
+            for (int field = 0; field < RADIX.length && remaining >= 0; field++) {
+                if (remaining < RADIX[field] - 1) {
+                    variants[field] = (int) remaining + 1;
+                    break;
+                }
+                remaining -= RADIX[field] - 1;
+            }
+            return variants;
+        }
+
+        long remaining = caseIndex;
+        for (int field = 0; field < RADIX.length; field++) {
+            variants[field] = (int) (remaining % RADIX[field]);
+            remaining /= RADIX[field];
+        }
+        return variants;
+    }
+
+    private static String username(UsernameVariant variant, SplittableRandom random) {
+        return switch (variant) {
+            case VALID -> randomString(random, LOWER + UPPER + DIGITS, USERNAME_MIN_LENGTH + 4);
+            case MIN_LENGTH -> randomString(random, LOWER + UPPER + DIGITS, USERNAME_MIN_LENGTH);
+            case MAX_LENGTH -> randomString(random, LOWER + UPPER + DIGITS, USERNAME_MAX_LENGTH);
+            case BELOW_MIN_LENGTH -> randomString(random, LOWER + UPPER + DIGITS, USERNAME_MIN_LENGTH - 1);
+            case ABOVE_MAX_LENGTH -> randomString(random, LOWER + UPPER + DIGITS, USERNAME_MAX_LENGTH + 1);
+            case SPECIAL_CHARACTERS -> randomString(random, LOWER, USERNAME_MIN_LENGTH + 2) + "!#$";
+            case MISSING -> "";
+            case EXISTING -> EXISTING_USERNAME;
+        };
+    }
+
+    private static String email(EmailVariant variant, long index, SplittableRandom random) {
+        return switch (variant) {
+            case VALID -> "reg" + index + randomString(random, LOWER + DIGITS, 6) + "@example.com";
+            case INVALID_FORMAT -> "reg" + index + randomString(random, LOWER + DIGITS, 6) + "example.com";
+            case MISSING -> "";
+            case EXISTING -> EXISTING_EMAIL;
+        };
+    }
+
+    private static String phone(PhoneVariant variant, SplittableRandom random) {
+        return switch (variant) {
+            case VALID -> randomString(random, DIGITS, PHONE_MIN_LENGTH);
+            case BELOW_MIN_LENGTH -> randomString(random, DIGITS, PHONE_MIN_LENGTH - 1);
+            case ABOVE_MAX_LENGTH -> randomString(random, DIGITS, PHONE_MAX_LENGTH + 1);
+            case ALPHABETS_OR_SPECIAL_CHARACTERS -> randomString(random, DIGITS, PHONE_MIN_LENGTH - 3) + "ab#";
+            case MISSING -> "";
+        };
+    }
+
+    private static String password(PasswordVariant variant, SplittableRandom random) {
+        return switch (variant) {
+            case VALID -> randomString(random, LOWER, 4) + randomString(random, UPPER, 2) + randomString(random, DIGITS, 2);
+            case BELOW_MIN_LENGTH -> randomString(random, LOWER, 3) + randomString(random, UPPER, 2) + randomString(random, DIGITS, PASSWORD_MIN_LENGTH - 6);
+            case ABOVE_MAX_LENGTH -> randomString(random, LOWER, PASSWORD_MAX_LENGTH - 3) + randomString(random, UPPER, 2) + randomString(random, DIGITS, 2);
+            case WITHOUT_UPPERCASE -> randomString(random, LOWER, 6) + randomString(random, DIGITS, 2);
+            case WITHOUT_LOWERCASE -> randomString(random, UPPER, 6) + randomString(random, DIGITS, 2);
+            case WITHOUT_NUMERIC -> randomString(random, LOWER, 4) + randomString(random, UPPER, 4);
+        };
+    }
+
+    private static String randomString(SplittableRandom random, String alphabet, int length) {
+        var value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return value.toString();
+    }
+
+    // Scrambles neighbouring indexes into unrelated seeds, SplittableRandom streams of close seeds overlap otherwise.
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -2,17 +2,27 @@ package factories;
 
 import com.github.javafaker.Faker;
 import infrastructure.MailslurpService;
+import infrastructure.ResilientCall;
+import infrastructure.TestResourceTracker;
 import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
-import io.restassured.response.Response;
 import models.TestUser;
 import models.UserStatus;
+import perf.ProvisioningEvent;
+import serialization.WireJson;
 
 import static io.restassured.RestAssured.given;
 
 public class TestUserFactory {
 
     private static final Faker faker = new Faker();
+    // Create calls are retried instead of hedged, so a stalled one has to time out first.
+    private static final int CREATE_TIMEOUT_MILLIS = Integer.getInteger("resilience.createTimeoutMillis", 10000);
+    private static final RestAssuredConfig CREATE_CONFIG = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+            .setParam("http.connection.timeout", CREATE_TIMEOUT_MILLIS)
+            .setParam("http.socket.timeout", CREATE_TIMEOUT_MILLIS));
 
     public static TestUser createDefault() {
         return createDefault(UserStatus.ACTIVE);
@@ -22,6 +32,15 @@ public class TestUserFactory {
         return createDefaultWithRealEmail(UserStatus.ACTIVE);
     }
 
+    public static TestUser acquireDefaultWithRealEmail() {
+        return acquireDefaultWithRealEmail(UserStatus.ACTIVE);
+    }
+
+    public static TestUser acquireDefaultWithRealEmail(UserStatus status) {
+        return TestUserRegistry.lease(status)
+                .orElseGet(() -> createDefaultWithRealEmail(status));
+    }
+
     public static TestUser createDefault2FAWithRealEmail() {
         String username = faker.name().username();
         String password = generatePassword();
@@ -62,6 +81,23 @@ public class TestUserFactory {
         return createTestUserWithRealEmail(username, password, phone, status.toString());
     }
 
+    public static void deleteTestUser(int userId) {
+        RestAssured.useRelaxedHTTPSValidation();
+        var event = new ProvisioningEvent("/deleteTestUser").userId(userId);
+        event.begin();
+        try {
+            ResilientCall.idempotent("backend.deleteTestUser", () -> ResilientCall.requireStatus(given()
+                    .baseUri("https://chesstv.local:3000/")
+                    .when()
+                    .delete("/deleteTestUser/" + userId), 200));
+        } catch (RuntimeException | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
     private static String generateUsername() {
         String username = faker.name().firstName() + faker.number().digits(5);
         username = username.replaceAll("[^a-zA-Z0-9]", "");
@@ -86,19 +122,7 @@ public class TestUserFactory {
         user.setPassword(password);
         user.setPhone(phone);
         user.setStatus(status);
-        RestAssured.useRelaxedHTTPSValidation();
-        Response response = given()
-                .baseUri("https://chesstv.local:3000/")
-                .contentType(ContentType.JSON)
-                .body(user)
-                .when()
-                .post("/createTestUser")
-                .then()
-                .statusCode(200)
-                .extract()
-                .response();
-
-        return response.as(TestUser.class);
+        return postTestUser("/createTestUser", user);
     }
 
     private static TestUser createTestUserWithRealEmail(String username, String password, String phone, String status) {
@@ -110,18 +134,8 @@ public class TestUserFactory {
         user.setPassword(password);
         user.setPhone(phone);
         user.setStatus(status);
-        RestAssured.useRelaxedHTTPSValidation();
-        Response response = given()
-                .baseUri("https://chesstv.local:3000/")
-                .contentType(ContentType.JSON)
-                .body(user)
-                .when()
-                .post("/createTestUser")
-                .then()
-                .statusCode(200)
-                .extract()
-                .response();
-        user = response.as(TestUser.class);
+        user.setUserInbox(newInbox);
+        user = postTestUser("/createTestUser", user);
         user.setUserInbox(newInbox);
         return user;
     }
@@ -135,19 +149,44 @@ public class TestUserFactory {
         user.setPassword(password);
         user.setPhone(phone);
         user.setStatus(status);
-        RestAssured.useRelaxedHTTPSValidation();
-        Response response = given()
-                .baseUri("https://chesstv.local:3000/")
-                .contentType(ContentType.JSON)
-                .body(user)
-                .when()
-                .post("/createTestUser2FA")
-                .then()
-                .statusCode(200)
-                .extract()
-                .response();
-        user = response.as(TestUser.class);
+        user.setUserInbox(newInbox);
+        user = postTestUser("/createTestUser2FA", user);
         user.setUserInbox(newInbox);
         return user;
     }
+
+    private static TestUser postTestUser(String endpoint, TestUser user) {
+        RestAssured.useRelaxedHTTPSValidation();
+        // The inbox stays local, the wire adapter does not send it.
+        var event = new ProvisioningEvent(endpoint).inboxId(user.getUserInbox() == null ? null : user.getUserInbox().getId());
+        event.begin();
+        try {
+            String username = user.getUsername();
+            String email = user.getEmail();
+            TestUser createdUser = ResilientCall.nonIdempotent("backend" + endpoint, attempt -> {
+                // A timed-out attempt may have created its user anyway, so a retry never reuses its username.
+                // A real inbox keeps its address; such a user, if it exists, is left behind untracked.
+                user.setUsername(attempt == 1 ? username : username + attempt);
+                if (user.getUserInbox() == null) {
+                    user.setEmail(attempt == 1 ? email : attempt + "." + email);
+                }
+                String body = WireJson.toJson(user);
+                return () -> WireJson.fromJson(ResilientCall.requireStatus(given()
+                        .config(CREATE_CONFIG)
+                        .baseUri("https://chesstv.local:3000/")
+                        .contentType(ContentType.JSON)
+                        .body(body)
+                        .when()
+                        .post(endpoint), 200).asString(), TestUser.class);
+            });
+            TestResourceTracker.registerUser(createdUser.getId());
+            event.userId(createdUser.getId());
+            return createdUser;
+        } catch (RuntimeException | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package factories;
+
+import com.mailslurp.models.InboxDto;
+import infrastructure.AuthBypassService;
+import infrastructure.TestResourceTracker;
+import models.TestUser;
+import models.TwoFA;
+import models.UserStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * On-disk pool of already provisioned users with working inboxes, shared across runs and surefire forks.
+ * A leased user is removed from the pool and tracked for cleanup until it is handed back with {@link #giveBack(TestUser)}.
+ * Only tests that leave the account unchanged should lease; tests that rename or otherwise change it create their own
+ * user. A leased user whose test fails half way is passed to {@link #invalidate(TestUser)} first, so it is deleted with
+ * the run instead of coming back in a state the pool does not know about.
+ * Entries are re-validated with a login probe when they have not been checked for {@code registry.validationTtlMinutes}.
+ */
+public class TestUserRegistry {
+    private static final int FORMAT_MAGIC = 0x54555231;
+    private static final int FORMAT_VERSION = 1;
+    private static final Path REGISTRY_FILE = Path.of(System.getProperty("registry.file", ".test-state/test-users.bin"));
+    private static final Path LOCK_FILE = REGISTRY_FILE.resolveSibling(REGISTRY_FILE.getFileName() + ".lock");
+    private static final Duration VALIDATION_TTL = Duration.ofMinutes(Long.getLong("registry.validationTtlMinutes", 30L));
+    private static final Set<Integer> invalidated = ConcurrentHashMap.newKeySet();
+
+    private record Entry(TestUser user, long validatedAt) {
+    }
+
+    public static Optional<TestUser> lease(UserStatus status) {
+        while (true) {
+            var candidate = new Entry[1];
+            mutate(entries -> {
+                for (var entry : entries) {
+                    if (status.toString().equals(entry.user().getStatus()) && entry.user().getUserInbox() != null) {
+                        candidate[0] = entry;
+                        entries.remove(entry);
+                        break;
+                    }
+                }
+                return entries;
+            });
+
+            if (candidate[0] == null) {
+                return Optional.empty();
+            }
+
+            var user = candidate[0].user();
+            TestResourceTracker.registerUser(user.getId());
+            TestResourceTracker.registerInbox(user.getUserInbox().getId());
+            if (isFresh(candidate[0]) || probe(user)) {
+                return Optional.of(user);
+            }
+        }
+    }
+
+    /**
+     * Returns a leased user to the pool, unless it has no inbox or was invalidated.
+     */
+    public static void giveBack(TestUser user) {
+        if (user.getUserInbox() == null || invalidated.contains(user.getId())) {
+            return;
+        }
+
+        TestResourceTracker.release(TestResourceTracker.ResourceType.USER, String.valueOf(user.getId()));
+        TestResourceTracker.release(TestResourceTracker.ResourceType.INBOX, user.getUserInbox().getId().toString());
+        var returned = new Entry(user, System.currentTimeMillis());
+        mutate(entries -> {
+            entries.removeIf(entry -> entry.user().getId() == user.getId());
+            entries.add(returned);
+            return entries;
+        });
+    }
+
+    /**
+     * Keeps the user out of the pool for good; it stays tracked and is deleted with the run.
+     */
+    public static void invalidate(TestUser user) {
+        invalidated.add(user.getId());
+        mutate(entries -> {
+            entries.removeIf(entry -> entry.user().getId() == user.getId());
+            return entries;
+        });
+    }
+
+    private static boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.validatedAt() < VALIDATION_TTL.toMillis();
+    }
+
+    private static boolean probe(TestUser user) {
+        try {
+            AuthBypassService.generateAuthCookie(user.getUsername(), user.getPassword(), String.valueOf(user.getId()));
+            return true;
+        } catch (Throwable e) {
+            // The account was deleted or its credentials changed, it stays tracked and is cleaned up with the run.
+            return false;
+        }
+    }
+
+    private static synchronized void mutate(UnaryOperator<List<Entry>> change) {
+        try {
+            Files.createDirectories(REGISTRY_FILE.toAbsolutePath().getParent());
+            try (FileChannel lockChannel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                write(change.apply(read()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Entry> read() throws IOException {
+        var entries = new ArrayList<Entry>();
+        if (!Files.exists(REGISTRY_FILE)) {
+            return entries;
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(REGISTRY_FILE)))) {
+            if (in.readInt() != FORMAT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                return entries;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                var user = new TestUser();
+                user.setId(in.readInt());
+                user.setUsername(in.readUTF());
+                user.setEmail(in.readUTF());
+                user.setPassword(in.readUTF());
+                user.setPhone(in.readUTF());
+                user.setStatus(in.readUTF());
+                if (in.readBoolean()) {
+                    var inbox = new InboxDto();
+                    inbox.setId(new UUID(in.readLong(), in.readLong()));
+                    inbox.setEmailAddress(user.getEmail());
+                    user.setUserInbox(inbox);
+                }
+                if (in.readBoolean()) {
+                    var twoFA = new TwoFA();
+                    twoFA.setSecret(in.readUTF());
+                    twoFA.setEnabled(in.readBoolean());
+                    user.setTwoFA(twoFA);
+                }
+                entries.add(new Entry(user, in.readLong()));
+            }
+        }
+        return entries;
+    }
+
+    private static void write(List<Entry> entries) throws IOException {
+        Path temp = REGISTRY_FILE.resolveSibling(REGISTRY_FILE.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (var entry : entries) {
+                var user = entry.user();
+                out.writeInt(user.getId());
+                out.writeUTF(nullToEmpty(user.getUsername()));
+                out.writeUTF(nullToEmpty(user.getEmail()));
+                out.writeUTF(nullToEmpty(user.getPassword()));
+                out.writeUTF(nullToEmpty(user.getPhone()));
+                out.writeUTF(nullToEmpty(user.getStatus()));
+                out.writeBoolean(user.getUserInbox() != null);
+                if (user.getUserInbox() != null) {
+                    out.writeLong(user.getUserInbox().getId().getMostSignificantBits());
+                    out.writeLong(user.getUserInbox().getId().getLeastSignificantBits());
+                }
+                out.writeBoolean(user.getTwoFA() != null);
+                if (user.getTwoFA() != null) {
+                    out.writeUTF(nullToEmpty(user.getTwoFA().getSecret()));
+                    out.writeBoolean(user.getTwoFA().isEnabled());
+                }
+                out.writeLong(entry.validatedAt());
+            }
+        }
+        Files.move(temp, REGISTRY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -2,6 +2,7 @@ package infrastructure;
 
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import perf.AuthBypassEvent;
 
 import java.util.Map;
 
@@ -10,34 +11,44 @@ public class AuthBypassService {
     private static final String BASE_URI = "https://chesstv.local:3000/";
 
     public static String generateAuthCookie(String displayName, String password, String userid) {
-        Response response = RestAssured.given()
-                .baseUri(BASE_URI)
-                .header("Content-Type", "application/json")
-                .body(Map.of(
-                        "displayName", displayName,
-                        "password", password,
-                        "userid", userid
-                ))
-                .when()
-                .post("/generate-auth-cookie")
-                .then()
-                .statusCode(200)
-                .extract()
-                .response();
-
-        return response.getDetailedCookie("auth").getValue();
+        var event = new AuthBypassEvent("generateAuthCookie").userId(userid);
+        event.begin();
+        try {
+            Response response = ResilientCall.idempotent("auth.generateAuthCookie", () -> ResilientCall.requireStatus(RestAssured.given()
+                    .baseUri(BASE_URI)
+                    .header("Content-Type", "application/json")
+                    .body(Map.of(
+                            "displayName", displayName,
+                            "password", password,
+                            "userid", userid
+                    ))
+                    .when()
+                    .post("/generate-auth-cookie"), 200));
+
+            return response.getDetailedCookie("auth").getValue();
+        } catch (RuntimeException | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 
     public static String generate2FAToken(int userId) {
-        Response response = RestAssured.given()
-                .baseUri(BASE_URI)
-                .when()
-                .get("/2fa/generate-token/" + userId)
-                .then()
-                .statusCode(200)
-                .extract()
-                .response();
-
-        return response.getBody().asString();
+        var event = new AuthBypassEvent("generate2FAToken").userId(userId);
+        event.begin();
+        try {
+            Response response = ResilientCall.idempotent("auth.generate2FAToken", () -> ResilientCall.requireStatus(RestAssured.given()
+                    .baseUri(BASE_URI)
+                    .when()
+                    .get("/2fa/generate-token/" + userId), 200));
+
+            return response.getBody().asString();
+        } catch (RuntimeException | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 }
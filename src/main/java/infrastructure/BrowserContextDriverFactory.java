@@ -0,0 +1,116 @@
+package infrastructure;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out isolated browser sessions that share Chrome processes. Each session is a fresh CDP browser context
+ * (its own cookies, storage and cache) opened in a shared browser, driven by a ChromeDriver session attached through
+ * the browser's debugger address. Up to {@code browser.contextsPerProcess} sessions share one Chrome process.
+ * Quitting a session disposes its context and leaves the browser running for the next one.
+ */
+public class BrowserContextDriverFactory {
+    private static final int CONTEXTS_PER_PROCESS = Integer.getInteger("browser.contextsPerProcess", 8);
+    private static final List<SharedBrowser> browsers = new ArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserContextDriverFactory::quitAll, "shared-browser-shutdown"));
+    }
+
+    public static WebDriver create() {
+        SharedBrowser browser = reserveSlot();
+        try {
+            return browser.openContext();
+        } catch (RuntimeException e) {
+            releaseSlot(browser);
+            throw e;
+        }
+    }
+
+    private static synchronized SharedBrowser reserveSlot() {
+        for (var browser : browsers) {
+            if (browser.leased < CONTEXTS_PER_PROCESS) {
+                browser.leased++;
+                return browser;
+            }
+        }
+
+        var browser = new SharedBrowser();
+        browser.leased++;
+        browsers.add(browser);
+        return browser;
+    }
+
+    private static synchronized void releaseSlot(SharedBrowser browser) {
+        browser.leased--;
+    }
+
+    private static synchronized void quitAll() {
+        for (var browser : browsers) {
+            try {
+                browser.owner.quit();
+            } catch (RuntimeException ignored) {
+                // The browser is already gone.
+            }
+        }
+        browsers.clear();
+    }
+
+    private static class SharedBrowser {
+        private final ChromeDriver owner;
+        private final String debuggerAddress;
+        private int leased;
+
+        SharedBrowser() {
+            owner = new ChromeDriver(DriverFactory.defaultOptions());
+            var chromeOptions = (Map<?, ?>) owner.getCapabilities().getCapability("goog:chromeOptions");
+            debuggerAddress = (String) chromeOptions.get("debuggerAddress");
+        }
+
+        WebDriver openContext() {
+            String contextId;
+            String targetId;
+            synchronized (this) {
+                contextId = (String) owner.executeCdpCommand("Target.createBrowserContext", Map.of("disposeOnDetach", false))
+                        .get("browserContextId");
+                targetId = (String) owner.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank", "browserContextId", contextId))
+                        .get("targetId");
+            }
+
+            ChromeOptions options = DriverFactory.defaultOptions();
+            options.setExperimentalOption("debuggerAddress", debuggerAddress);
+            ChromeDriver session;
+            try {
+                session = new ChromeDriver(options);
+                // ChromeDriver uses CDP target ids as window handles.
+                session.switchTo().window(targetId);
+            } catch (RuntimeException e) {
+                disposeContext(contextId);
+                throw e;
+            }
+
+            return new EventFiringDecorator<WebDriver>(new WebDriverListener() {
+                @Override
+                public void afterQuit(WebDriver driver) {
+                    disposeContext(contextId);
+                    releaseSlot(SharedBrowser.this);
+                }
+            }).decorate(session);
+        }
+
+        private synchronized void disposeContext(String contextId) {
+            try {
+                owner.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+            } catch (RuntimeException ignored) {
+                // Disposing fails only when the browser itself is gone.
+            }
+        }
+    }
+}
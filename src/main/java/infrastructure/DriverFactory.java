@@ -0,0 +1,29 @@
+package infrastructure;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import perf.WebDriverCommandRecorder;
+
+public class DriverFactory {
+    // When enabled, tests get isolated browser contexts inside shared Chrome processes instead of a Chrome process each.
+    private static final boolean SHARED_BROWSER = Boolean.parseBoolean(System.getProperty("browser.sharedProcess", "false"));
+    // WebDriver commands show up as flight recorder events; the decorator costs a proxy call per command.
+    private static final boolean COMMAND_EVENTS = Boolean.parseBoolean(System.getProperty("jfr.webDriverEvents", "true"));
+
+    public static ChromeOptions defaultOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--ignore-certificate-errors");
+        return options;
+    }
+
+    public static WebDriver createChromeDriver() {
+        WebDriver driver = SHARED_BROWSER ? BrowserContextDriverFactory.create() : new ChromeDriver(defaultOptions());
+        if (COMMAND_EVENTS) {
+            driver = new EventFiringDecorator<WebDriver>(new WebDriverCommandRecorder()).decorate(driver);
+        }
+        driver.manage().window().maximize();
+        return ForensicsRecorder.attach(driver);
+    }
+}
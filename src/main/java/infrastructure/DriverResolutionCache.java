@@ -0,0 +1,85 @@
+package infrastructure;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import perf.PerfRecorder;
+import perf.StartupReport;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Version-locked replacement for {@code WebDriverManager.chromedriver().setup()}. The first run resolves the driver
+ * with WebDriverManager and writes the version and binary path to {@code driver.manifest}; later runs point
+ * {@code webdriver.chrome.driver} at that binary without loading WebDriverManager or touching the network.
+ * <p>
+ * The manifest is only replaced when the binary is gone or on {@code -Ddriver.refresh=true}, e.g. after a Chrome update.
+ * {@code -Ddriver.version} pins the version the resolution asks for.
+ */
+public class DriverResolutionCache {
+    private static final Path MANIFEST = Path.of(System.getProperty("driver.manifest", ".test-state/driver-manifest.properties"));
+    private static final boolean REFRESH = Boolean.getBoolean("driver.refresh");
+    private static boolean resolved;
+
+    public static synchronized void setupChromeDriver() {
+        if (resolved) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        var cached = REFRESH ? null : cachedDriverPath();
+        if (cached != null) {
+            System.setProperty("webdriver.chrome.driver", cached.toString());
+            PerfRecorder.record(StartupReport.TEST_KEY, "driver-setup/cached", (System.nanoTime() - start) / 1_000_000);
+        } else {
+            resolve();
+            PerfRecorder.record(StartupReport.TEST_KEY, "driver-setup/resolved", (System.nanoTime() - start) / 1_000_000);
+        }
+        resolved = true;
+    }
+
+    private static Path cachedDriverPath() {
+        if (!Files.exists(MANIFEST)) {
+            return null;
+        }
+
+        var manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(MANIFEST, StandardCharsets.UTF_8)) {
+            manifest.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+
+        String pinned = System.getProperty("driver.version");
+        if (pinned != null && !pinned.equals(manifest.getProperty("chromedriver.version"))) {
+            return null;
+        }
+        String path = manifest.getProperty("chromedriver.path");
+        return path != null && Files.isExecutable(Path.of(path)) ? Path.of(path) : null;
+    }
+
+    private static void resolve() {
+        var manager = WebDriverManager.chromedriver();
+        String pinned = System.getProperty("driver.version");
+        if (pinned != null) {
+            manager.driverVersion(pinned);
+        }
+        manager.setup();
+
+        var manifest = new Properties();
+        manifest.setProperty("chromedriver.version", manager.getDownloadedDriverVersion());
+        manifest.setProperty("chromedriver.path", manager.getDownloadedDriverPath());
+        try {
+            Files.createDirectories(MANIFEST.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(MANIFEST, StandardCharsets.UTF_8)) {
+                manifest.store(writer, "Locked chromedriver resolution, delete or run with -Ddriver.refresh=true to resolve again");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write driver manifest " + MANIFEST + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package infrastructure;
+
+import utilities.HtmlEmailTokenizer;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Extraction rule applied while waiting for an email. It names the body part it needs, so only that part is downloaded.
+ */
+public record EmailExtractor<T>(BodyPart part, Function<String, Optional<T>> rule) {
+    private static final Pattern ACTIVATION_CODE = Pattern.compile("\\bYour activation code is: ([a-zA-Z0-9]+)");
+    private static final Pattern ONE_TIME_CODE = Pattern.compile("\\b(\\d{4,8})\\b");
+
+    public enum BodyPart {
+        TEXT,
+        HTML
+    }
+
+    public static EmailExtractor<String> activationCode() {
+        return textPattern(ACTIVATION_CODE);
+    }
+
+    /**
+     * First standalone run of 4 to 8 digits, the shape of SMS and 2FA codes.
+     */
+    public static EmailExtractor<String> oneTimeCode() {
+        return textPattern(ONE_TIME_CODE);
+    }
+
+    /**
+     * First group of the first match in the email text, or the whole match when the pattern has no groups.
+     */
+    public static EmailExtractor<String> textPattern(Pattern pattern) {
+        return new EmailExtractor<>(BodyPart.TEXT, body -> HtmlEmailTokenizer.findInText(body, pattern));
+    }
+
+    /**
+     * First link to the host (any when null) whose path starts with the prefix (any when null).
+     */
+    public static EmailExtractor<URI> firstLink(String host, String pathPrefix) {
+        return new EmailExtractor<>(BodyPart.HTML, body -> HtmlEmailTokenizer.firstLink(body, host, pathPrefix));
+    }
+
+    public Optional<T> extract(String body) {
+        return body == null ? Optional.empty() : rule.apply(body);
+    }
+}
@@ -0,0 +1,34 @@
+package infrastructure;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Criteria for {@link MailslurpService#waitForMatchingEmail}. Subject, sender and recipient are matched by the provider;
+ * the body check runs on the fetched body part, since the provider cannot match on it.
+ */
+public record EmailMatch(String subjectContains, String from, String to, String bodyContains, OffsetDateTime since) {
+
+    public static EmailMatch any() {
+        return new EmailMatch(null, null, null, null, null);
+    }
+
+    public EmailMatch withSubjectContaining(String subject) {
+        return new EmailMatch(subject, from, to, bodyContains, since);
+    }
+
+    public EmailMatch withFrom(String sender) {
+        return new EmailMatch(subjectContains, sender, to, bodyContains, since);
+    }
+
+    public EmailMatch withTo(String recipient) {
+        return new EmailMatch(subjectContains, from, recipient, bodyContains, since);
+    }
+
+    public EmailMatch withBodyContaining(String text) {
+        return new EmailMatch(subjectContains, from, to, text, since);
+    }
+
+    public EmailMatch receivedSince(OffsetDateTime timestamp) {
+        return new EmailMatch(subjectContains, from, to, bodyContains, timestamp);
+    }
+}
@@ -0,0 +1,206 @@
+package infrastructure;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the last console and network events of a browser in fixed-size ring buffers, fed by raw CDP events.
+ * Nothing is written while tests pass; on failure {@link #captureFailure(Path)} grabs a screenshot and the DOM
+ * on a background thread and writes them to disk together with the buffered events.
+ * The recorder is detached, its listeners removed and its buffers dropped, when the driver quits.
+ */
+public class ForensicsRecorder {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("forensics.enabled", "true"));
+    private static final int BUFFER_SIZE = Integer.getInteger("forensics.bufferSize", 500);
+    // Keyed by the driver handed to the test; entries are removed explicitly, the recorder references its driver.
+    private static final Map<WebDriver, ForensicsRecorder> recorders = Collections.synchronizedMap(new IdentityHashMap<>());
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final WebDriver driver;
+    private final RingBuffer console = new RingBuffer(BUFFER_SIZE);
+    private final RingBuffer network = new RingBuffer(BUFFER_SIZE);
+    private DevTools devTools;
+
+    private ForensicsRecorder(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Starts recording and returns the driver to hand to the test, which detaches the recorder when it quits.
+     */
+    public static WebDriver attach(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools hasDevTools)) {
+            return driver;
+        }
+
+        var recorder = new ForensicsRecorder(driver);
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            recorder.devTools = devTools;
+            // Pin the session to this driver's window, the browser may host other tests' contexts as well.
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+            devTools.send(new Command<>("Runtime.enable", Map.of()));
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.addListener(event("Runtime.consoleAPICalled"), recorder::onConsole);
+            devTools.addListener(event("Runtime.exceptionThrown"), recorder::onException);
+            devTools.addListener(event("Network.requestWillBeSent"), recorder::onRequest);
+            devTools.addListener(event("Network.responseReceived"), recorder::onResponse);
+            devTools.addListener(event("Network.loadingFailed"), recorder::onLoadingFailed);
+        } catch (RuntimeException e) {
+            // Forensics are best effort, a browser without a DevTools endpoint still runs the test.
+            return driver;
+        }
+
+        WebDriver recorded = new EventFiringDecorator<WebDriver>(new WebDriverListener() {
+            @Override
+            public void beforeQuit(WebDriver target) {
+                recorder.detach();
+            }
+        }).decorate(driver);
+        recorders.put(recorded, recorder);
+        return recorded;
+    }
+
+    public static ForensicsRecorder of(WebDriver driver) {
+        return recorders.get(driver);
+    }
+
+    private void detach() {
+        recorders.values().remove(this);
+        try {
+            devTools.clearListeners();
+        } catch (RuntimeException ignored) {
+            // The DevTools connection is already gone.
+        }
+    }
+
+    /**
+     * Takes the screenshot and DOM snapshot off the calling thread. The returned future completes once the browser
+     * is no longer needed; the files are written afterwards in the background.
+     */
+    public CompletableFuture<Void> captureFailure(Path directory) {
+        List<String> consoleEvents = console.snapshot();
+        List<String> networkEvents = network.snapshot();
+        var capture = CompletableFuture.supplyAsync(() -> {
+            byte[] screenshot = null;
+            String dom = null;
+            try {
+                screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                dom = driver.getPageSource();
+            } catch (RuntimeException e) {
+                dom = "Browser was not reachable: " + e.getMessage();
+            }
+            return new Capture(screenshot, dom);
+        }, executor);
+
+        capture.thenAcceptAsync(captured -> write(directory, consoleEvents, networkEvents, captured), executor);
+        return capture.thenApply(captured -> null);
+    }
+
+    private void write(Path directory, List<String> consoleEvents, List<String> networkEvents, Capture capture) {
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("console.log"), consoleEvents, StandardCharsets.UTF_8);
+            Files.write(directory.resolve("network.log"), networkEvents, StandardCharsets.UTF_8);
+            if (capture.screenshot() != null) {
+                Files.write(directory.resolve("screenshot.png"), capture.screenshot());
+            }
+            if (capture.dom() != null) {
+                Files.writeString(directory.resolve("dom.html"), capture.dom(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write failure forensics to " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private void onConsole(Map<String, Object> event) {
+        var values = new ArrayList<Object>();
+        if (event.get("args") instanceof List<?> args) {
+            for (var arg : args) {
+                if (arg instanceof Map<?, ?> remoteObject) {
+                    values.add(remoteObject.containsKey("value") ? remoteObject.get("value") : remoteObject.get("description"));
+                }
+            }
+        }
+        console.add(event.get("type") + " " + values);
+    }
+
+    private void onException(Map<String, Object> event) {
+        if (event.get("exceptionDetails") instanceof Map<?, ?> details) {
+            Object exception = details.get("exception");
+            Object description = exception instanceof Map<?, ?> remoteObject ? remoteObject.get("description") : details.get("text");
+            console.add("exception " + description);
+        }
+    }
+
+    private void onRequest(Map<String, Object> event) {
+        if (event.get("request") instanceof Map<?, ?> request) {
+            network.add("-> " + request.get("method") + " " + request.get("url"));
+        }
+    }
+
+    private void onResponse(Map<String, Object> event) {
+        if (event.get("response") instanceof Map<?, ?> response) {
+            network.add("<- " + response.get("status") + " " + response.get("url"));
+        }
+    }
+
+    private void onLoadingFailed(Map<String, Object> event) {
+        network.add("!! " + event.get("errorText") + " request " + event.get("requestId"));
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private record Capture(byte[] screenshot, String dom) {
+    }
+
+    private static class RingBuffer {
+        private final String[] entries;
+        private int next;
+        private boolean full;
+
+        RingBuffer(int capacity) {
+            entries = new String[capacity];
+        }
+
+        synchronized void add(String entry) {
+            entries[next] = Instant.now() + " " + entry;
+            next = (next + 1) % entries.length;
+            full |= next == 0;
+        }
+
+        synchronized List<String> snapshot() {
+            var snapshot = new ArrayList<String>(entries.length);
+            if (full) {
+                snapshot.addAll(Arrays.asList(entries).subList(next, entries.length));
+            }
+            snapshot.addAll(Arrays.asList(entries).subList(0, next));
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package infrastructure;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Fills a form and submits it in a single script execution instead of a find and a sendKeys/click round trip per field.
+ * Values go through the element's native value setter followed by {@code input} and {@code change} events, so
+ * framework-controlled inputs see them like typed text; checkboxes are clicked, which fires their handlers.
+ * <p>
+ * {@link Mode#KEYSTROKES} performs the same steps one WebDriver command at a time with real keystrokes, for tests
+ * that exercise key handlers or input masks; like script mode it replaces a field's value rather than appending to it.
+ * {@code -Dform.fillMode=KEYSTROKES} switches every form to it.
+ */
+public class FormFiller {
+    private static final Mode DEFAULT_MODE = Mode.valueOf(System.getProperty("form.fillMode", "SCRIPT").toUpperCase(Locale.ROOT));
+    private static final String FILL_SCRIPT = """
+            const find = l => l.xpath
+                ? document.evaluate(l.xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue
+                : document.querySelector(l.css);
+            const steps = arguments[0];
+            const elements = steps.map(find);
+            const missing = steps.filter((step, i) => !elements[i]).map(step => step.xpath || step.css);
+            if (missing.length) {
+                return missing;
+            }
+            steps.forEach((step, i) => {
+                const element = elements[i];
+                switch (step.action) {
+                    case 'type': {
+                        const prototype = Object.getPrototypeOf(element);
+                        const setter = Object.getOwnPropertyDescriptor(prototype, 'value').set;
+                        element.focus();
+                        setter.call(element, step.value);
+                        element.dispatchEvent(new Event('input', {bubbles: true}));
+                        element.dispatchEvent(new Event('change', {bubbles: true}));
+                        element.blur();
+                        break;
+                    }
+                    case 'check':
+                        if (element.checked !== step.value) {
+                            element.click();
+                        }
+                        break;
+                    case 'attribute':
+                        element.setAttribute(step.name, step.value);
+                        break;
+                    case 'click':
+                        element.click();
+                        break;
+                }
+            });
+            return missing;
+            """;
+
+    public enum Mode {
+        SCRIPT,
+        KEYSTROKES
+    }
+
+    public record Field(String css, String xpath) {
+        public static Field id(String id) {
+            return new Field("[id=\"" + id + "\"]", null);
+        }
+
+        public static Field name(String name) {
+            return new Field("[name=\"" + name + "\"]", null);
+        }
+
+        public static Field xpath(String xpath) {
+            return new Field(null, xpath);
+        }
+
+        By toBy() {
+            return xpath != null ? By.xpath(xpath) : By.cssSelector(css);
+        }
+    }
+
+    private record Step(String action, Field field, String name, Object value) {
+    }
+
+    private final WebDriver driver;
+    private final List<Step> steps = new ArrayList<>();
+    private Mode mode = DEFAULT_MODE;
+
+    private FormFiller(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static FormFiller on(WebDriver driver) {
+        return new FormFiller(driver);
+    }
+
+    public FormFiller mode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public FormFiller type(Field field, String value) {
+        steps.add(new Step("type", field, null, value));
+        return this;
+    }
+
+    public FormFiller check(Field field, boolean checked) {
+        steps.add(new Step("check", field, null, checked));
+        return this;
+    }
+
+    public FormFiller attribute(Field field, String name, String value) {
+        steps.add(new Step("attribute", field, name, value));
+        return this;
+    }
+
+    public FormFiller click(Field field) {
+        steps.add(new Step("click", field, null, null));
+        return this;
+    }
+
+    /**
+     * Runs the steps in order. In script mode nothing is touched when a field is missing.
+     */
+    public void apply() {
+        if (mode == Mode.KEYSTROKES) {
+            steps.forEach(this::applyWithKeystrokes);
+            return;
+        }
+
+        var script = new ArrayList<Map<String, Object>>(steps.size());
+        for (var step : steps) {
+            var scriptStep = new LinkedHashMap<String, Object>();
+            scriptStep.put("action", step.action());
+            scriptStep.put("css", step.field().css());
+            scriptStep.put("xpath", step.field().xpath());
+            scriptStep.put("name", step.name());
+            scriptStep.put("value", step.value());
+            script.add(scriptStep);
+        }
+
+        var missing = (List<?>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, script);
+        if (missing != null && !missing.isEmpty()) {
+            throw new NoSuchElementException("Form fields not found: " + missing);
+        }
+    }
+
+    private void applyWithKeystrokes(Step step) {
+        var element = driver.findElement(step.field().toBy());
+        switch (step.action()) {
+            case "type" -> {
+                element.clear();
+                element.sendKeys((String) step.value());
+            }
+            case "check" -> {
+                if (element.isSelected() != (Boolean) step.value()) {
+                    element.click();
+                }
+            }
+            case "attribute" -> ((JavascriptExecutor) driver).executeScript("arguments[0].setAttribute(arguments[1], arguments[2]);",
+                    element, step.name(), step.value());
+            case "click" -> element.click();
+            default -> throw new IllegalStateException("Unknown form step " + step.action());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package infrastructure;
+
+import org.openqa.selenium.WebDriver;
+
+import static infrastructure.FormFiller.Field;
+
+/**
+ * The app's login and registration forms as {@link FormFiller}s; call {@link FormFiller#apply()} to submit them.
+ */
+public class Forms {
+    private static final String CAPTCHA_BYPASS_TOKEN = "10685832-cd90-4e91-9224-2ef69ce88f53";
+
+    public static FormFiller login(WebDriver driver, String usernameOrEmail, String password) {
+        return FormFiller.on(driver)
+                .type(Field.id("usernameOrEmail"), usernameOrEmail)
+                .type(Field.id("password"), password)
+                .check(Field.id("rememberMe"), true)
+                .attribute(Field.name("captcha-bypass"), "value", CAPTCHA_BYPASS_TOKEN)
+                .click(Field.xpath("//button[text()='Login']"));
+    }
+
+    public static FormFiller twoFactor(WebDriver driver, String code) {
+        return FormFiller.on(driver)
+                .type(Field.id("twoFaToken"), code)
+                .click(Field.xpath("//button[text()='Login']"));
+    }
+
+    public static FormFiller registration(WebDriver driver, String username, String email, String phone,
+                                          String password, String passwordConfirm) {
+        return FormFiller.on(driver)
+                .type(Field.id("registerUsername"), username)
+                .type(Field.id("registerEmail"), email)
+                .type(Field.id("registerPhone"), phone)
+                .type(Field.id("registerPassword"), password)
+                .type(Field.id("confirmPassword"), passwordConfirm)
+                .click(Field.xpath("//button[text()='Register']"));
+    }
+}
@@ -1,13 +1,17 @@
 package infrastructure;
 
+import com.mailslurp.apis.EmailControllerApi;
 import com.mailslurp.apis.InboxControllerApi;
 import com.mailslurp.apis.WaitForControllerApi;
 import com.mailslurp.clients.ApiClient;
 import com.mailslurp.clients.ApiException;
 import com.mailslurp.clients.Configuration;
 import com.mailslurp.models.Email;
+import com.mailslurp.models.EmailPreview;
 import com.mailslurp.models.InboxDto;
+import com.mailslurp.models.MatchOption;
 import com.mailslurp.models.SendEmailOptions;
+import com.mailslurp.models.WaitForConditions;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import lombok.SneakyThrows;
@@ -15,6 +19,7 @@ import models.emails.EmailsItem;
 import models.emails.EmailsResponse;
 import okhttp3.OkHttpClient;
 import org.openqa.selenium.WebDriver;
+import perf.MailslurpEvent;
 import utilities.ResourcesReader;
 import utilities.TimestampBuilder;
 
@@ -25,15 +30,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class MailslurpService {
     private static ApiClient defaultClient;
     private static InboxControllerApi inboxControllerApi;
+    private static EmailControllerApi emailControllerApi;
     private static String API_KEY = System.getenv("MAILSLURP_KEY");
     private static final Long TIMEOUT = 30000L;
 
@@ -50,20 +60,157 @@ public class MailslurpService {
         defaultClient.setHttpClient(httpClient);
         defaultClient.setApiKey(API_KEY);
         inboxControllerApi = new InboxControllerApi(defaultClient);
+        emailControllerApi = new EmailControllerApi(defaultClient);
     }
 
     @SneakyThrows
     public static InboxDto createInbox(String name) {
-        InboxDto inbox = inboxControllerApi.createInbox(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
-        return inbox;
+        var event = new MailslurpEvent("createInbox");
+        event.begin();
+        try {
+            // Inboxes have no natural key, an attempt that timed out after creating one leaves it behind in the account.
+            InboxDto inbox = ResilientCall.nonIdempotent("mailslurp.createInbox",
+                    attempt -> () -> inboxControllerApi.createInbox(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null));
+            TestResourceTracker.registerInbox(inbox.getId());
+            event.inboxId(inbox.getId());
+            return inbox;
+        } catch (Exception | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @SneakyThrows
+    public static void deleteInbox(UUID inboxId) {
+        ResilientCall.idempotent("mailslurp.deleteInbox", () -> {
+            inboxControllerApi.deleteInbox(inboxId);
+            return null;
+        });
     }
 
     @SneakyThrows
     public static Email waitForLatestEmail(InboxDto inbox, OffsetDateTime since) throws ApiException {
         var waitForControllerApi = new WaitForControllerApi(defaultClient);
-        Email receivedEmail = waitForControllerApi
-                .waitForLatestEmail(inbox.getId(), TIMEOUT, false, null, since, null, 10000L);
+        var event = new MailslurpEvent("waitForLatestEmail").inboxId(inbox.getId());
+        event.begin();
+        try {
+            Email receivedEmail = ResilientCall.longPoll("mailslurp.waitForLatestEmail", () -> waitForControllerApi
+                    .waitForLatestEmail(inbox.getId(), TIMEOUT, false, null, since, null, 10000L));
+
+            return receivedEmail;
+        } catch (Exception | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Waits for the first email that matches and returns what the extractor finds in it.
+     * Subject, sender and recipient are matched by Mailslurp, only the body part the extractor needs is downloaded,
+     * and emails that do not match the body check or yield nothing, e.g. a welcome email, are skipped.
+     */
+    @SneakyThrows
+    public static <T> T waitForMatchingEmail(InboxDto inbox, EmailMatch match, EmailExtractor<T> extractor) {
+        var event = new MailslurpEvent("waitForMatchingEmail").inboxId(inbox.getId());
+        event.begin();
+        try {
+            return awaitMatchingEmail(inbox, match, extractor, TIMEOUT).orElseThrow(() -> new IllegalStateException(
+                    "No email in inbox " + inbox.getEmailAddress() + " matched " + match + " within " + TIMEOUT + " ms"));
+        } catch (Exception | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Like {@link #waitForMatchingEmail(InboxDto, EmailMatch, EmailExtractor)}, but gives up after {@code timeoutMillis}
+     * and returns empty, e.g. to check that an email is not sent.
+     */
+    @SneakyThrows
+    public static <T> Optional<T> findMatchingEmail(InboxDto inbox, EmailMatch match, EmailExtractor<T> extractor, long timeoutMillis) {
+        var event = new MailslurpEvent("findMatchingEmail").inboxId(inbox.getId());
+        event.begin();
+        try {
+            return awaitMatchingEmail(inbox, match, extractor, timeoutMillis);
+        } catch (Exception | Error e) {
+            event.failed();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static <T> Optional<T> awaitMatchingEmail(InboxDto inbox, EmailMatch match, EmailExtractor<T> extractor,
+                                                      long timeoutMillis) throws Exception {
+        var waitForControllerApi = new WaitForControllerApi(defaultClient);
+        var matchOptions = matchOptions(match);
+        var seen = new HashSet<UUID>();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        while (System.currentTimeMillis() < deadline) {
+            var conditions = new WaitForConditions()
+                    .inboxId(inbox.getId())
+                    .count(seen.size() + 1)
+                    .countType(WaitForConditions.CountTypeEnum.ATLEAST)
+                    .matches(matchOptions)
+                    .since(match.since())
+                    .unreadOnly(false)
+                    .sortDirection(WaitForConditions.SortDirectionEnum.ASC)
+                    .timeout(Math.max(1000L, deadline - System.currentTimeMillis()));
+            List<EmailPreview> previews;
+            try {
+                previews = ResilientCall.longPoll("mailslurp.waitForMatchingEmail", () -> waitForControllerApi.waitFor(conditions));
+            } catch (Exception e) {
+                // Mailslurp answers 408 when its wait times out, which just means nothing (else) matched.
+                if (e instanceof ApiException apiException && apiException.getCode() == 408) {
+                    break;
+                }
+                throw e;
+            }
+
+            for (var preview : previews) {
+                if (!seen.add(preview.getId())) {
+                    continue;
+                }
+
+                String body = fetchBodyPart(preview.getId(), extractor.part());
+                if (match.bodyContains() != null && (body == null || !body.contains(match.bodyContains()))) {
+                    continue;
+                }
+
+                var extracted = extractor.extract(body);
+                if (extracted.isPresent()) {
+                    return extracted;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<MatchOption> matchOptions(EmailMatch match) {
+        var options = new ArrayList<MatchOption>();
+        if (match.subjectContains() != null) {
+            options.add(new MatchOption().field(MatchOption.FieldEnum.SUBJECT).should(MatchOption.ShouldEnum.CONTAIN).value(match.subjectContains()));
+        }
+        if (match.from() != null) {
+            options.add(new MatchOption().field(MatchOption.FieldEnum.FROM).should(MatchOption.ShouldEnum.CONTAIN).value(match.from()));
+        }
+        if (match.to() != null) {
+            options.add(new MatchOption().field(MatchOption.FieldEnum.TO).should(MatchOption.ShouldEnum.CONTAIN).value(match.to()));
+        }
+        return options;
+    }
 
-        return receivedEmail;
+    private static String fetchBodyPart(UUID emailId, EmailExtractor.BodyPart part) throws ApiException {
+        return switch (part) {
+            case TEXT -> String.join("\n", emailControllerApi.getEmailTextLines(emailId, true, "\n").getLines());
+            case HTML -> emailControllerApi.getEmailHTML(emailId, false);
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package infrastructure;
+
+import com.mailslurp.clients.ApiException;
+import io.restassured.response.Response;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Resilience policies for the provisioning and inbox calls.
+ * <ul>
+ *     <li>Hedging: once an idempotent call has been running longer than the observed p95 latency of its endpoint, a duplicate is fired and the first success wins.
+ *     Calls that create something are never hedged.</li>
+ *     <li>Retries: calls are retried with exponential backoff and full jitter, but only for transient failures (I/O errors, 429 and 5xx).</li>
+ *     <li>Circuit breaker: after {@code resilience.breakerThreshold} consecutive transient failures an endpoint fails fast until the cool-down has passed.</li>
+ * </ul>
+ */
+public class ResilientCall {
+    private static final int MAX_ATTEMPTS = Integer.getInteger("resilience.maxAttempts", 3);
+    private static final long BACKOFF_BASE_MILLIS = Long.getLong("resilience.backoffBaseMillis", 200L);
+    private static final long BACKOFF_CAP_MILLIS = Long.getLong("resilience.backoffCapMillis", 5000L);
+    private static final int LATENCY_WINDOW = 100;
+    private static final int MIN_SAMPLES_TO_HEDGE = Integer.getInteger("resilience.minSamplesToHedge", 20);
+    private static final long MIN_HEDGE_DELAY_MILLIS = Long.getLong("resilience.minHedgeDelayMillis", 50L);
+    private static final int BREAKER_THRESHOLD = Integer.getInteger("resilience.breakerThreshold", 5);
+    private static final long BREAKER_COOL_DOWN_MILLIS = Long.getLong("resilience.breakerCoolDownMillis", 30000L);
+
+    private static final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "resilient-call");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(String endpoint) {
+            super("Circuit breaker is open for " + endpoint + ", failing fast");
+        }
+    }
+
+    public static class TransientFailureException extends RuntimeException {
+        public TransientFailureException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Call that can safely run more than once: hedged, retried on transient failures and guarded by the breaker.
+     */
+    @SneakyThrows
+    public static <T> T idempotent(String endpoint, Callable<T> call) {
+        return withRetries(endpoint(endpoint), () -> hedge(endpoint(endpoint), call));
+    }
+
+    /**
+     * Long-polling call: its latency depends on when the awaited event happens, so it is retried but never hedged.
+     */
+    @SneakyThrows
+    public static <T> T longPoll(String endpoint, Callable<T> call) {
+        return withRetries(endpoint(endpoint), call);
+    }
+
+    /**
+     * Call that creates something: never hedged, retried on transient failures with the call {@code attemptCall} builds
+     * for attempt 1, 2, ... A timed-out attempt may still have created its resource on the server, so every attempt
+     * must differ in whatever the server keys the resource on, e.g. a fresh username.
+     */
+    @SneakyThrows
+    public static <T> T nonIdempotent(String endpoint, IntFunction<Callable<T>> attemptCall) {
+        var attempt = new AtomicInteger();
+        return withRetries(endpoint(endpoint), () -> attemptCall.apply(attempt.incrementAndGet()).call());
+    }
+
+    /**
+     * Turns throttling and server errors into {@link TransientFailureException} and asserts the expected status otherwise.
+     */
+    public static Response requireStatus(Response response, int expectedStatus) {
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) {
+            throw new TransientFailureException("Server responded with " + status);
+        }
+        return response.then()
+                .statusCode(expectedStatus)
+                .extract()
+                .response();
+    }
+
+    private static Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, Endpoint::new);
+    }
+
+    private static <T> T withRetries(Endpoint endpoint, Callable<T> call) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            endpoint.acquirePermit();
+            try {
+                T result = call.call();
+                endpoint.recordSuccess();
+                return result;
+            } catch (AssertionError e) {
+                // The endpoint answered, the response just was not the expected one.
+                endpoint.recordSuccess();
+                throw e;
+            } catch (Exception e) {
+                if (!isTransient(e)) {
+                    // A 4xx, e.g. the 408 of a long poll that saw no matching event, is a healthy endpoint answering.
+                    endpoint.recordSuccess();
+                    throw e;
+                }
+                endpoint.recordFailure();
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+
+            long ceiling = Math.min(BACKOFF_CAP_MILLIS, BACKOFF_BASE_MILLIS << (attempt - 1));
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+    }
+
+    private static <T> T hedge(Endpoint endpoint, Callable<T> call) throws Exception {
+        Callable<T> timedCall = () -> {
+            long start = System.nanoTime();
+            T result = call.call();
+            endpoint.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return result;
+        };
+
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> inFlight = new ArrayList<>();
+        inFlight.add(completion.submit(timedCall));
+        long hedgeDelay = endpoint.hedgeDelayMillis();
+        boolean hedged = hedgeDelay < 0;
+        Throwable failure = null;
+
+        while (!inFlight.isEmpty()) {
+            Future<T> done = hedged ? completion.take() : completion.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+            if (done == null) {
+                hedged = true;
+                inFlight.add(completion.submit(timedCall));
+                continue;
+            }
+
+            inFlight.remove(done);
+            try {
+                T result = done.get();
+                inFlight.forEach(loser -> loser.cancel(true));
+                return result;
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+                // A primary that fails fast is a real failure, not a slow call worth hedging.
+                hedged = true;
+            }
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        throw (Exception) failure;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TransientFailureException) {
+                return true;
+            }
+            if (cause instanceof ApiException apiException) {
+                int code = apiException.getCode();
+                return code == 0 || code == 429 || code >= 500;
+            }
+        }
+        return false;
+    }
+
+    private static class Endpoint {
+        private final String name;
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int samples;
+        private int consecutiveFailures;
+        private long openedAt = -1;
+        private boolean trialInFlight;
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        synchronized void recordLatency(long millis) {
+            latencies[samples % LATENCY_WINDOW] = millis;
+            samples++;
+        }
+
+        synchronized long hedgeDelayMillis() {
+            if (samples < MIN_SAMPLES_TO_HEDGE) {
+                return -1;
+            }
+            long[] window = Arrays.copyOf(latencies, Math.min(samples, LATENCY_WINDOW));
+            Arrays.sort(window);
+            long p95 = window[(int) Math.ceil(window.length * 0.95) - 1];
+            return Math.max(p95, MIN_HEDGE_DELAY_MILLIS);
+        }
+
+        synchronized void acquirePermit() {
+            if (openedAt < 0) {
+                return;
+            }
+            if (System.currentTimeMillis() - openedAt < BREAKER_COOL_DOWN_MILLIS || trialInFlight) {
+                throw new CircuitOpenException(name);
+            }
+            // Half-open: let a single trial call through.
+            trialInFlight = true;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            openedAt = -1;
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= BREAKER_THRESHOLD) {
+                openedAt = System.currentTimeMillis();
+            }
+            trialInFlight = false;
+        }
+    }
+}
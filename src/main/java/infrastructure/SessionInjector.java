@@ -0,0 +1,70 @@
+package infrastructure;
+
+import models.TestUser;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts session cookies into the browser through CDP {@code Network.setCookies} before the first navigation,
+ * so an authenticated test opens its target page directly instead of loading the site once just to be allowed to call {@code addCookie}.
+ */
+public class SessionInjector {
+    private static final String BASE_URL = "https://chesstv.local:3000/";
+
+    public static void injectAuthCookies(WebDriver driver, TestUser user) {
+        var authCookieValue = AuthBypassService.generateAuthCookie(user.getUsername(), user.getPassword(), String.valueOf(user.getId()));
+        injectAuthCookies(driver, user, authCookieValue);
+    }
+
+    public static void injectAuthCookies(WebDriver driver, TestUser user, String authCookieValue) {
+        injectCookies(driver, List.of(
+                new Cookie("auth", authCookieValue),
+                new Cookie("userId", String.valueOf(user.getId()))));
+    }
+
+    public static void injectCookies(WebDriver driver, Collection<Cookie> cookies) {
+        if (!(driver instanceof HasCdp cdpDriver)) {
+            // Without CDP cookies can only be added for the domain of the loaded page.
+            driver.navigate().to(BASE_URL);
+            for (var cookie : cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            return;
+        }
+
+        var cdpCookies = new ArrayList<Map<String, Object>>();
+        for (var cookie : cookies) {
+            cdpCookies.add(toCdpCookie(cookie));
+        }
+        cdpDriver.executeCdpCommand("Network.setCookies", Map.of("cookies", cdpCookies));
+    }
+
+    private static Map<String, Object> toCdpCookie(Cookie cookie) {
+        var cdpCookie = new HashMap<String, Object>();
+        cdpCookie.put("name", cookie.getName());
+        cdpCookie.put("value", cookie.getValue());
+        if (cookie.getDomain() != null) {
+            cdpCookie.put("domain", cookie.getDomain());
+            cdpCookie.put("path", cookie.getPath() == null ? "/" : cookie.getPath());
+        } else {
+            // Cookies created in code carry no domain, the URL scopes them to the site under test.
+            cdpCookie.put("url", BASE_URL);
+        }
+        cdpCookie.put("secure", cookie.isSecure());
+        cdpCookie.put("httpOnly", cookie.isHttpOnly());
+        if (cookie.getSameSite() != null) {
+            cdpCookie.put("sameSite", cookie.getSameSite());
+        }
+        if (cookie.getExpiry() != null) {
+            cdpCookie.put("expires", cookie.getExpiry().getTime() / 1000.0);
+        }
+        return cdpCookie;
+    }
+}
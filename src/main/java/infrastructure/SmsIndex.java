@@ -0,0 +1,163 @@
+package infrastructure;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of text messages captured by {@link TwilioStandIn}, per recipient phone number.
+ * Numbers are keyed by their last {@value #NATIONAL_DIGITS} digits, so {@code +1 (555) 123-4567} and {@code 5551234567}
+ * are the same phone. Each phone keeps its latest {@code smsIndex.maxPerPhone} messages.
+ * <p>
+ * Waits do not poll: a waiter is registered with the phone and completed by the thread that indexes the matching message.
+ */
+public class SmsIndex {
+    private static final int NATIONAL_DIGITS = 10;
+    private static final SmsIndex SHARED = new SmsIndex(Integer.getInteger("smsIndex.maxPerPhone", 100));
+
+    private final int maxPerPhone;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Deque<SmsMessage>> byPhone = new HashMap<>();
+    private final Map<String, SmsMessage> bySid = new HashMap<>();
+    private final Map<String, List<Waiter>> waiters = new HashMap<>();
+
+    public record SmsMessage(String sid, String accountSid, String to, String from, String body, Instant receivedAt) {
+    }
+
+    private record Waiter(Predicate<SmsMessage> matcher, CompletableFuture<SmsMessage> result) {
+    }
+
+    public SmsIndex(int maxPerPhone) {
+        this.maxPerPhone = maxPerPhone;
+    }
+
+    public static SmsIndex shared() {
+        return SHARED;
+    }
+
+    public void add(SmsMessage message) {
+        var matched = new ArrayList<Waiter>();
+        String phone = key(message.to());
+        lock.lock();
+        try {
+            var messages = byPhone.computeIfAbsent(phone, k -> new ArrayDeque<>());
+            messages.addFirst(message);
+            bySid.put(message.sid(), message);
+            while (messages.size() > maxPerPhone) {
+                bySid.remove(messages.removeLast().sid());
+            }
+
+            var phoneWaiters = waiters.get(phone);
+            if (phoneWaiters != null) {
+                phoneWaiters.removeIf(waiter -> waiter.matcher().test(message) && matched.add(waiter));
+                if (phoneWaiters.isEmpty()) {
+                    waiters.remove(phone);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Completed outside the lock, dependent stages may run on this thread.
+        matched.forEach(waiter -> waiter.result().complete(message));
+    }
+
+    public List<SmsMessage> sentTo(String phone) {
+        lock.lock();
+        try {
+            var messages = byPhone.get(key(phone));
+            return messages == null ? List.of() : List.copyOf(messages);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<SmsMessage> bySid(String sid) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(bySid.get(sid));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes with the newest already indexed message to the phone that matches, or with the first matching one
+     * to arrive. Completes exceptionally with a {@link TimeoutException} after the timeout.
+     */
+    public CompletableFuture<SmsMessage> waitForAsync(String phone, Predicate<SmsMessage> matcher, Duration timeout) {
+        String key = key(phone);
+        var waiter = new Waiter(matcher, new CompletableFuture<>());
+        lock.lock();
+        try {
+            var messages = byPhone.get(key);
+            if (messages != null) {
+                for (var message : messages) {
+                    if (matcher.test(message)) {
+                        return CompletableFuture.completedFuture(message);
+                    }
+                }
+            }
+            waiters.computeIfAbsent(key, k -> new ArrayList<>()).add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        waiter.result().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((message, failure) -> {
+                    if (failure != null) {
+                        removeWaiter(key, waiter);
+                    }
+                });
+        return waiter.result();
+    }
+
+    public Optional<SmsMessage> waitFor(String phone, Predicate<SmsMessage> matcher, Duration timeout) throws InterruptedException {
+        try {
+            return Optional.of(waitForAsync(phone, matcher, timeout).get());
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void removeWaiter(String key, Waiter waiter) {
+        lock.lock();
+        try {
+            var phoneWaiters = waiters.get(key);
+            if (phoneWaiters != null) {
+                phoneWaiters.remove(waiter);
+                if (phoneWaiters.isEmpty()) {
+                    waiters.remove(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static String key(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        var digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.length() <= NATIONAL_DIGITS ? digits.toString() : digits.substring(digits.length() - NATIONAL_DIGITS);
+    }
+}
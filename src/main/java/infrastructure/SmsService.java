@@ -0,0 +1,44 @@
+package infrastructure;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Waits for text messages captured by {@link TwilioStandIn}. The extractor variants only accept a message once the
+ * extractor finds its value, so an unrelated SMS to the same phone does not end the wait.
+ */
+public class SmsService {
+    private static final Duration TIMEOUT = Duration.ofMillis(Long.getLong("sms.timeoutMillis", 10_000L));
+
+    public static SmsIndex.SmsMessage waitForSms(String phone, Predicate<SmsIndex.SmsMessage> matcher) {
+        return join(waitForSmsAsync(phone, matcher), phone);
+    }
+
+    public static CompletableFuture<SmsIndex.SmsMessage> waitForSmsAsync(String phone, Predicate<SmsIndex.SmsMessage> matcher) {
+        TwilioStandIn.shared();
+        return SmsIndex.shared().waitForAsync(phone, matcher, TIMEOUT);
+    }
+
+    public static <T> T waitForSms(String phone, Predicate<SmsIndex.SmsMessage> matcher, EmailExtractor<T> extractor) {
+        return join(waitForSmsAsync(phone, matcher, extractor), phone);
+    }
+
+    public static <T> CompletableFuture<T> waitForSmsAsync(String phone, Predicate<SmsIndex.SmsMessage> matcher, EmailExtractor<T> extractor) {
+        return waitForSmsAsync(phone, matcher.and(sms -> extractor.extract(sms.body()).isPresent()))
+                .thenApply(sms -> extractor.extract(sms.body()).orElseThrow());
+    }
+
+    private static <T> T join(CompletableFuture<T> future, String phone) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("No matching SMS to " + phone + " within " + TIMEOUT.toMillis() + " ms");
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package infrastructure;
+
+import factories.TestUserFactory;
+import perf.TestContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of every user and inbox provisioned during a run and deletes them in batches on a small background pool.
+ * A resource belongs to the test that created it (see {@link TestContext}) and becomes deletable once that test reports
+ * {@link #testFinished(String)}; deletable resources are flushed once {@code cleanup.threshold} of them have piled up.
+ * Resources created outside a test, and anything still pending, are deleted when the JVM exits.
+ * <p>
+ * Each registration is journaled to disk, so resources left behind by a killed run are picked up by the next one.
+ * Failed deletions are journaled as well; a resource that failed {@code cleanup.maxAttempts} times is given up on.
+ */
+public class TestResourceTracker {
+    private static final int BATCH_SIZE = Integer.getInteger("cleanup.batchSize", 20);
+    private static final int THRESHOLD = Integer.getInteger("cleanup.threshold", 100);
+    private static final int MAX_CONCURRENT_DELETES = Integer.getInteger("cleanup.concurrency", 4);
+    private static final int MAX_ATTEMPTS = Integer.getInteger("cleanup.maxAttempts", 3);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = Long.getLong("cleanup.shutdownTimeoutSeconds", 60L);
+    private static final Path JOURNAL_DIR = Path.of(System.getProperty("cleanup.journalDir", ".test-state/cleanup-journal"));
+    private static final long PID = ProcessHandle.current().pid();
+
+    // Resource -> owning test, "" for resources that only go at the end of the run.
+    private static final Map<Resource, String> pending = new LinkedHashMap<>();
+    private static final Set<Resource> finished = new LinkedHashSet<>();
+    private static final Map<Resource, Integer> failedAttempts = new HashMap<>();
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService cleanupExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_DELETES, runnable -> {
+        Thread thread = new Thread(runnable, "test-resource-cleanup-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static BufferedWriter journal;
+
+    public enum ResourceType {
+        USER,
+        INBOX
+    }
+
+    private record Resource(ResourceType type, String id) {
+        String toJournalEntry() {
+            return type + " " + id;
+        }
+
+        static Resource fromJournalEntry(String entry) {
+            String[] parts = entry.split(" ", 2);
+            return new Resource(ResourceType.valueOf(parts[0]), parts[1]);
+        }
+    }
+
+    static {
+        try {
+            Files.createDirectories(JOURNAL_DIR);
+            journal = Files.newBufferedWriter(journalFile(PID), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        recoverOrphans();
+        Runtime.getRuntime().addShutdownHook(new Thread(TestResourceTracker::flushOnShutdown, "test-resource-cleanup-shutdown"));
+    }
+
+    /**
+     * Makes the resources created by {@code testName} deletable, called once the test and its teardown are done.
+     */
+    public static void testFinished(String testName) {
+        boolean thresholdReached;
+        synchronized (pending) {
+            pending.forEach((resource, owner) -> {
+                if (owner.equals(testName)) {
+                    finished.add(resource);
+                }
+            });
+            thresholdReached = finished.size() >= THRESHOLD;
+        }
+
+        if (thresholdReached) {
+            flushFinishedAsync();
+        }
+    }
+
+    public static void registerUser(int userId) {
+        register(new Resource(ResourceType.USER, String.valueOf(userId)));
+    }
+
+    public static void registerInbox(UUID inboxId) {
+        register(new Resource(ResourceType.INBOX, inboxId.toString()));
+    }
+
+    /**
+     * Stops tracking a resource that should outlive the run, e.g. an account handed back to a shared pool.
+     */
+    public static void release(ResourceType type, String id) {
+        var resource = new Resource(type, id);
+        synchronized (pending) {
+            finished.remove(resource);
+            if (pending.remove(resource) != null) {
+                writeJournal("-" + resource.toJournalEntry());
+            }
+        }
+    }
+
+    public static int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Deletes everything pending, including resources of tests that are still running. Meant for the end of the run.
+     */
+    public static CompletableFuture<Void> flushAsync() {
+        List<Resource> drained;
+        synchronized (pending) {
+            drained = new ArrayList<>(pending.keySet());
+            pending.clear();
+            finished.clear();
+        }
+        return deleteAsync(drained);
+    }
+
+    private static CompletableFuture<Void> flushFinishedAsync() {
+        List<Resource> drained;
+        synchronized (pending) {
+            drained = new ArrayList<>(finished);
+            drained.forEach(pending::remove);
+            finished.clear();
+        }
+        return deleteAsync(drained);
+    }
+
+    private static CompletableFuture<Void> deleteAsync(List<Resource> drained) {
+        var batches = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < drained.size(); i += BATCH_SIZE) {
+            var batch = drained.subList(i, Math.min(i + BATCH_SIZE, drained.size()));
+            batches.add(CompletableFuture.runAsync(() -> deleteBatch(batch), cleanupExecutor));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new));
+    }
+
+    private static void register(Resource resource) {
+        String owner = Objects.requireNonNullElse(TestContext.currentTest(), "");
+        synchronized (pending) {
+            if (pending.putIfAbsent(resource, owner) == null) {
+                writeJournal("+" + resource.toJournalEntry());
+            }
+        }
+    }
+
+    private static void deleteBatch(List<Resource> batch) {
+        for (var resource : batch) {
+            try {
+                switch (resource.type()) {
+                    case USER -> TestUserFactory.deleteTestUser(Integer.parseInt(resource.id()));
+                    case INBOX -> MailslurpService.deleteInbox(UUID.fromString(resource.id()));
+                }
+                synchronized (pending) {
+                    writeJournal("-" + resource.toJournalEntry());
+                }
+            } catch (Exception | AssertionError e) {
+                synchronized (pending) {
+                    int attempts = failedAttempts.merge(resource, 1, Integer::sum);
+                    if (attempts < MAX_ATTEMPTS) {
+                        // The entry stays in the journal, so the next run retries the deletion.
+                        writeJournal("!" + resource.toJournalEntry());
+                    } else {
+                        writeJournal("-" + resource.toJournalEntry());
+                    }
+                    System.err.printf("Failed to delete %s %s (attempt %d of %d): %s%n",
+                            resource.type(), resource.id(), attempts, MAX_ATTEMPTS, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void recoverOrphans() {
+        try (Stream<Path> journals = Files.list(JOURNAL_DIR)) {
+            for (var file : journals.toList()) {
+                long ownerPid = journalOwner(file);
+                if (ownerPid == PID || ownerPid < 0 || ProcessHandle.of(ownerPid).map(ProcessHandle::isAlive).orElse(false)) {
+                    continue;
+                }
+
+                replay(file).forEach((orphan, attempts) -> {
+                    synchronized (pending) {
+                        pending.put(orphan, "");
+                        writeJournal("+" + orphan.toJournalEntry());
+                        for (int i = 0; i < attempts; i++) {
+                            writeJournal("!" + orphan.toJournalEntry());
+                        }
+                        if (attempts > 0) {
+                            failedAttempts.put(orphan, attempts);
+                        }
+                    }
+                });
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not recover orphaned test resources: " + e.getMessage());
+        }
+
+        if (pendingCount() > 0) {
+            flushAsync();
+        }
+    }
+
+    // Resources still alive in a journal, with the number of failed deletions each has seen.
+    private static Map<Resource, Integer> replay(Path file) throws IOException {
+        var alive = new LinkedHashMap<Resource, Integer>();
+        for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.length() < 2) {
+                continue;
+            }
+            var resource = Resource.fromJournalEntry(line.substring(1));
+            switch (line.charAt(0)) {
+                case '+' -> alive.putIfAbsent(resource, 0);
+                case '!' -> alive.computeIfPresent(resource, (ignored, attempts) -> attempts + 1);
+                default -> alive.remove(resource);
+            }
+        }
+        return alive;
+    }
+
+    private static void flushOnShutdown() {
+        try {
+            flushAsync().get(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Test resource cleanup did not finish, leftovers will be removed on the next run: " + e.getMessage());
+            return;
+        }
+
+        synchronized (pending) {
+            try {
+                journal.close();
+                if (pending.isEmpty() && replay(journalFile(PID)).isEmpty()) {
+                    Files.deleteIfExists(journalFile(PID));
+                }
+            } catch (IOException e) {
+                System.err.println("Could not close cleanup journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void writeJournal(String line) {
+        try {
+            journal.write(line);
+            journal.newLine();
+            journal.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path journalFile(long pid) {
+        return JOURNAL_DIR.resolve("journal-" + pid + ".log");
+    }
+
+    private static long journalOwner(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("journal-") || !name.endsWith(".log")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
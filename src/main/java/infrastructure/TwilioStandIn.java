@@ -0,0 +1,184 @@
+package infrastructure;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Twilio Messages API. Point the backend's Twilio base URL at {@link #baseUrl()} and every text
+ * message it sends lands in {@link SmsIndex} within milliseconds, without a carrier or a Twilio account.
+ * <p>
+ * Serves {@code POST /2010-04-01/Accounts/{AccountSid}/Messages.json} and {@code GET .../Messages/{MessageSid}.json}
+ * with Twilio's response shape. Credentials are accepted as they come. Requests are handled on virtual threads.
+ */
+public class TwilioStandIn implements AutoCloseable {
+    private static final Pattern MESSAGES_PATH = Pattern.compile("/2010-04-01/Accounts/([^/]+)/Messages(?:/([^/]+))?\\.json");
+    private static final DateTimeFormatter RFC_2822 = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss Z", Locale.US).withZone(ZoneOffset.UTC);
+    private static final Gson gson = new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
+    private static TwilioStandIn shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SmsIndex index;
+
+    private TwilioStandIn(int port, SmsIndex index) throws IOException {
+        this.index = index;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/2010-04-01/Accounts/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static TwilioStandIn start(int port, SmsIndex index) {
+        try {
+            return new TwilioStandIn(port, index);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the Twilio stand-in on port " + port, e);
+        }
+    }
+
+    /**
+     * The stand-in for the whole run, on {@code twilio.standIn.port} (a free port when 0), feeding {@link SmsIndex#shared()}.
+     */
+    public static synchronized TwilioStandIn shared() {
+        if (shared == null) {
+            shared = start(Integer.getInteger("twilio.standIn.port", 0), SmsIndex.shared());
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "twilio-stand-in-shutdown"));
+        }
+        return shared;
+    }
+
+    public URI baseUrl() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Matcher path = MESSAGES_PATH.matcher(exchange.getRequestURI().getPath());
+            if (!path.matches()) {
+                respond(exchange, 404, error(20404, "The requested resource " + exchange.getRequestURI().getPath() + " was not found", 404));
+                return;
+            }
+
+            String accountSid = path.group(1);
+            String messageSid = path.group(2);
+            if (messageSid == null && "POST".equals(exchange.getRequestMethod())) {
+                createMessage(exchange, accountSid);
+            } else if (messageSid != null && "GET".equals(exchange.getRequestMethod())) {
+                var message = index.bySid(messageSid).filter(sms -> sms.accountSid().equals(accountSid));
+                if (message.isPresent()) {
+                    respond(exchange, 200, toResource(message.get(), "delivered"));
+                } else {
+                    respond(exchange, 404, error(20404, "The requested resource was not found", 404));
+                }
+            } else {
+                respond(exchange, 405, error(20004, "Method not allowed", 405));
+            }
+        }
+    }
+
+    private void createMessage(HttpExchange exchange, String accountSid) throws IOException {
+        var form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String to = form.get("To");
+        String body = form.get("Body");
+        if (to == null || to.isBlank()) {
+            respond(exchange, 400, error(21604, "A 'To' phone number is required.", 400));
+            return;
+        }
+        if (body == null || body.isEmpty()) {
+            respond(exchange, 400, error(21602, "Message body is required.", 400));
+            return;
+        }
+
+        String from = form.getOrDefault("From", form.get("MessagingServiceSid"));
+        String sid = "SM" + UUID.randomUUID().toString().replace("-", "");
+        var message = new SmsIndex.SmsMessage(sid, accountSid, to, from, body, Instant.now());
+        index.add(message);
+        respond(exchange, 201, toResource(message, "queued"));
+    }
+
+    private static Map<String, Object> toResource(SmsIndex.SmsMessage message, String status) {
+        String date = RFC_2822.format(message.receivedAt());
+        String uri = "/2010-04-01/Accounts/" + message.accountSid() + "/Messages/" + message.sid() + ".json";
+        var resource = new LinkedHashMap<String, Object>();
+        resource.put("account_sid", message.accountSid());
+        resource.put("api_version", "2010-04-01");
+        resource.put("body", message.body());
+        resource.put("date_created", date);
+        resource.put("date_sent", "delivered".equals(status) ? date : null);
+        resource.put("date_updated", date);
+        resource.put("direction", "outbound-api");
+        resource.put("error_code", null);
+        resource.put("error_message", null);
+        resource.put("from", message.from());
+        resource.put("messaging_service_sid", null);
+        resource.put("num_media", "0");
+        resource.put("num_segments", String.valueOf(Math.max(1, (message.body().length() + 152) / 153)));
+        resource.put("price", null);
+        resource.put("price_unit", "USD");
+        resource.put("sid", message.sid());
+        resource.put("status", status);
+        resource.put("subresource_uris", Map.of("media", uri.replace(".json", "/Media.json")));
+        resource.put("to", message.to());
+        resource.put("uri", uri);
+        return resource;
+    }
+
+    private static Map<String, Object> error(int code, String message, int status) {
+        var error = new LinkedHashMap<String, Object>();
+        error.put("code", code);
+        error.put("message", message);
+        error.put("more_info", "https://www.twilio.com/docs/errors/" + code);
+        error.put("status", status);
+        return error;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        var form = new HashMap<String, String>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            form.putIfAbsent(name, value);
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, Object> json) throws IOException {
+        byte[] response = gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
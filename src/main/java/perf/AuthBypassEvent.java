@@ -0,0 +1,14 @@
+package perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tests.AuthBypass")
+@Label("Auth Bypass")
+@Description("Auth cookie or 2FA token request to the bypass endpoints")
+public class AuthBypassEvent extends TestStepEvent {
+    public AuthBypassEvent(String step) {
+        super(step);
+    }
+}
@@ -0,0 +1,95 @@
+package perf;
+
+import jdk.jfr.consumer.EventStream;
+import jdk.jfr.consumer.RecordedEvent;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sums up the test-step events of a flight recording: where the tests spent their time waiting, per step and per test.
+ * Fed either live by {@link StepWaitReport} or from a recording file, e.g. one taken with
+ * {@code -XX:StartFlightRecording:filename=suite.jfr} during a load run:
+ * <pre>java -cp target/classes perf.FlightRecordingAnalyzer suite.jfr</pre>
+ */
+public class FlightRecordingAnalyzer {
+    static final List<String> EVENT_NAMES = List.of("tests.Provisioning", "tests.Mailslurp", "tests.AuthBypass", "tests.WebDriverCommand");
+    private static final int TOP_TESTS = 10;
+
+    private final Map<String, Totals> bySteps = new HashMap<>();
+    private final Map<String, Totals> byTest = new HashMap<>();
+
+    private static class Totals {
+        long count;
+        long failed;
+        long totalNanos;
+        long maxNanos;
+
+        void add(long nanos, boolean failure) {
+            count++;
+            failed += failure ? 1 : 0;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: FlightRecordingAnalyzer <recording.jfr>");
+            System.exit(2);
+        }
+        System.out.print(analyze(Path.of(args[0])).report());
+    }
+
+    public static FlightRecordingAnalyzer analyze(Path recording) throws IOException {
+        var analyzer = new FlightRecordingAnalyzer();
+        try (var stream = EventStream.openFile(recording)) {
+            for (String name : EVENT_NAMES) {
+                stream.onEvent(name, analyzer::accept);
+            }
+            stream.start();
+        }
+        return analyzer;
+    }
+
+    public synchronized void accept(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        boolean failed = event.getBoolean("failed");
+        bySteps.computeIfAbsent(event.getEventType().getLabel() + " " + event.getString("step"), key -> new Totals()).add(nanos, failed);
+        String test = event.getString("testName");
+        byTest.computeIfAbsent(test == null ? "(outside a test)" : test, key -> new Totals()).add(nanos, failed);
+    }
+
+    public synchronized String report() {
+        if (bySteps.isEmpty()) {
+            return "Step waits: no test-step events recorded.\n";
+        }
+
+        var report = new StringBuilder("Step waits by step\n");
+        report.append(String.format("  %-48s %8s %7s %12s %10s %10s%n", "step", "count", "failed", "total ms", "mean ms", "max ms"));
+        bySteps.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().totalNanos).reversed())
+                .forEach(entry -> appendRow(report, entry.getKey(), entry.getValue()));
+
+        report.append("Step waits by test (top ").append(TOP_TESTS).append(")\n");
+        byTest.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().totalNanos).reversed())
+                .limit(TOP_TESTS)
+                .forEach(entry -> appendRow(report, entry.getKey(), entry.getValue()));
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, String name, Totals totals) {
+        report.append(String.format("  %-48s %8d %7d %12d %10.1f %10d%n", name, totals.count, totals.failed,
+                millis(totals.totalNanos), totals.totalNanos / 1e6 / totals.count, millis(totals.maxNanos)));
+    }
+
+    private static long millis(long nanos) {
+        return Duration.ofNanos(nanos).toMillis();
+    }
+}
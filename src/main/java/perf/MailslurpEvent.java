@@ -0,0 +1,14 @@
+package perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tests.Mailslurp")
+@Label("Mailslurp")
+@Description("Inbox creation or email wait against Mailslurp")
+public class MailslurpEvent extends TestStepEvent {
+    public MailslurpEvent(String step) {
+        super(step);
+    }
+}
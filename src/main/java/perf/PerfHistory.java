@@ -0,0 +1,104 @@
+package perf;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only log of test and phase durations across runs, one tab-separated line per sample.
+ * Lines are only ever added, under a file lock so parallel forks can share the file; a torn last line is skipped on load.
+ */
+public class PerfHistory {
+    private static final Path HISTORY_FILE = Path.of(System.getProperty("perf.historyFile", ".test-state/perf-history.tsv"));
+    private static final Path LOCK_FILE = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".lock");
+
+    private static final String COMMIT = System.getProperty("perf.commit", gitCommit());
+    private static final String ENVIRONMENT = System.getProperty("perf.environment", defaultEnvironment());
+    private static final String RUN_ID = System.currentTimeMillis() + "-" + ProcessHandle.current().pid();
+
+    public static String commit() {
+        return COMMIT;
+    }
+
+    public static String environment() {
+        return ENVIRONMENT;
+    }
+
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    public static void append(Collection<PerfSample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+            try (FileChannel lockChannel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock();
+                 Writer writer = Files.newBufferedWriter(HISTORY_FILE, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (var sample : samples) {
+                    writer.write(sample.toLine());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not append to performance history: " + e.getMessage());
+        }
+    }
+
+    public static List<PerfSample> load() {
+        var samples = new ArrayList<PerfSample>();
+        if (!Files.exists(HISTORY_FILE)) {
+            return samples;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(HISTORY_FILE, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                var sample = PerfSample.fromLine(line);
+                if (sample != null) {
+                    samples.add(sample);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return samples;
+    }
+
+    private static String gitCommit() {
+        try {
+            var process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 && !output.isEmpty()) {
+                return output;
+            }
+        } catch (IOException e) {
+            // No git on the machine, the samples are still comparable by environment.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    private static String defaultEnvironment() {
+        return System.getProperty("os.name") + "/" + System.getProperty("os.arch")
+                + " java " + Runtime.version().feature()
+                + " cpus " + Runtime.getRuntime().availableProcessors()
+                + " heap " + ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax() / (1024 * 1024) + "m";
+    }
+}
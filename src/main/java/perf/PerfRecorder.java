@@ -0,0 +1,26 @@
+package perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the samples of the current run in memory until {@link PerfReportListener} writes them out at the end.
+ */
+public class PerfRecorder {
+    private static final ConcurrentLinkedQueue<PerfSample> pending = new ConcurrentLinkedQueue<>();
+
+    public static void record(String test, String phase, long durationMillis) {
+        pending.add(new PerfSample(PerfHistory.runId(), System.currentTimeMillis(), PerfHistory.commit(), PerfHistory.environment(),
+                test, phase, durationMillis));
+    }
+
+    static List<PerfSample> drain() {
+        var drained = new ArrayList<PerfSample>();
+        PerfSample sample;
+        while ((sample = pending.poll()) != null) {
+            drained.add(sample);
+        }
+        return drained;
+    }
+}
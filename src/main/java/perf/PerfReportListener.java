@@ -0,0 +1,26 @@
+package perf;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Appends the run's samples to {@link PerfHistory} when the test plan finishes and prints the regression report.
+ * Runs without recorded samples leave the history untouched.
+ */
+public class PerfReportListener implements TestExecutionListener {
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        var samples = PerfRecorder.drain();
+        if (samples.isEmpty()) {
+            return;
+        }
+
+        PerfHistory.append(samples);
+        try {
+            var regressions = RegressionAnalyzer.analyze(PerfHistory.load(), PerfHistory.environment());
+            System.out.println(RegressionAnalyzer.report(regressions));
+        } catch (RuntimeException e) {
+            System.err.println("Could not analyze performance history: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package perf;
+
+/**
+ * One measured phase of one test in one run. {@code runId} groups the samples of a run, {@code commit} and
+ * {@code environment} tell what was measured where.
+ */
+public record PerfSample(String runId, long timestamp, String commit, String environment, String test, String phase, long durationMillis) {
+    static final char SEPARATOR = '\t';
+
+    String toLine() {
+        return String.join(String.valueOf(SEPARATOR), runId, String.valueOf(timestamp), commit, clean(environment), test, phase,
+                String.valueOf(durationMillis));
+    }
+
+    static PerfSample fromLine(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length != 7) {
+            return null;
+        }
+        try {
+            return new PerfSample(fields[0], Long.parseLong(fields[1]), fields[2], fields[3], fields[4], fields[5], Long.parseLong(fields[6]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String clean(String value) {
+        return value.replace(SEPARATOR, ' ').replace('\n', ' ');
+    }
+}
@@ -0,0 +1,14 @@
+package perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tests.Provisioning")
+@Label("Provisioning")
+@Description("Test user provisioning call to the backend, per endpoint")
+public class ProvisioningEvent extends TestStepEvent {
+    public ProvisioningEvent(String step) {
+        super(step);
+    }
+}
@@ -0,0 +1,168 @@
+package perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the latest runs of every test phase with the runs before them using a one-sided Mann-Whitney U test,
+ * which makes no assumption about the shape of the duration distribution and tolerates the occasional outlier.
+ * A phase is reported when it is both significantly slower ({@code perf.alpha}) and slower by a noticeable
+ * margin ({@code perf.minSlowdown}), since with enough samples tiny differences become significant too.
+ */
+public class RegressionAnalyzer {
+    private static final int RECENT_RUNS = Integer.getInteger("perf.recentRuns", 5);
+    private static final int BASELINE_RUNS = Integer.getInteger("perf.baselineRuns", 20);
+    private static final int MIN_SAMPLES = Integer.getInteger("perf.minSamples", 3);
+    private static final double ALPHA = Double.parseDouble(System.getProperty("perf.alpha", "0.01"));
+    private static final double MIN_SLOWDOWN = Double.parseDouble(System.getProperty("perf.minSlowdown", "1.10"));
+
+    public record Regression(String test, String phase, double baselineMedian, double recentMedian, double pValue,
+                             String baselineCommit, String recentCommit) {
+        public double slowdown() {
+            return recentMedian / baselineMedian;
+        }
+    }
+
+    /**
+     * Samples of one environment only, runs on different machines are not comparable.
+     */
+    public static List<Regression> analyze(List<PerfSample> history, String environment) {
+        var runs = history.stream()
+                .filter(sample -> sample.environment().equals(environment))
+                .collect(Collectors.groupingBy(PerfSample::runId, LinkedHashMap::new, Collectors.toList()));
+        var orderedRuns = runs.values().stream()
+                .sorted(Comparator.comparingLong(samples -> samples.get(0).timestamp()))
+                .toList();
+        if (orderedRuns.size() < 2 * MIN_SAMPLES) {
+            return List.of();
+        }
+
+        int recentStart = Math.max(0, orderedRuns.size() - RECENT_RUNS);
+        int baselineStart = Math.max(0, recentStart - BASELINE_RUNS);
+        var baseline = byPhase(orderedRuns.subList(baselineStart, recentStart));
+        var recent = byPhase(orderedRuns.subList(recentStart, orderedRuns.size()));
+
+        var regressions = new ArrayList<Regression>();
+        recent.forEach((key, recentSamples) -> {
+            var baselineSamples = baseline.get(key);
+            if (baselineSamples == null || baselineSamples.size() < MIN_SAMPLES || recentSamples.size() < MIN_SAMPLES) {
+                return;
+            }
+
+            double[] before = durations(baselineSamples);
+            double[] after = durations(recentSamples);
+            double baselineMedian = median(before);
+            double recentMedian = median(after);
+            if (baselineMedian <= 0 || recentMedian / baselineMedian < MIN_SLOWDOWN) {
+                return;
+            }
+
+            double pValue = mannWhitneyGreater(after, before);
+            if (pValue < ALPHA) {
+                var first = recentSamples.get(0);
+                regressions.add(new Regression(first.test(), first.phase(), baselineMedian, recentMedian, pValue,
+                        baselineSamples.get(baselineSamples.size() - 1).commit(), recentSamples.get(recentSamples.size() - 1).commit()));
+            }
+        });
+        regressions.sort(Comparator.comparingDouble(Regression::slowdown).reversed());
+        return regressions;
+    }
+
+    public static String report(List<Regression> regressions) {
+        if (regressions.isEmpty()) {
+            return "Performance history: no significant regressions in the last " + RECENT_RUNS + " runs.";
+        }
+
+        var report = new StringBuilder("Performance history: ").append(regressions.size()).append(" significant regression(s)\n");
+        for (var regression : regressions) {
+            report.append(String.format("  %-80s %-10s %8.0f ms -> %8.0f ms (x%.2f, p=%.4f, %s -> %s)%n",
+                    regression.test(), regression.phase(), regression.baselineMedian(), regression.recentMedian(),
+                    regression.slowdown(), regression.pValue(), regression.baselineCommit(), regression.recentCommit()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * One-sided p-value for "values in {@code sample} tend to be larger than in {@code reference}", from the normal
+     * approximation of U with tie and continuity correction.
+     */
+    static double mannWhitneyGreater(double[] sample, double[] reference) {
+        int n1 = sample.length;
+        int n2 = reference.length;
+        int n = n1 + n2;
+        double[][] pooled = new double[n][];
+        for (int i = 0; i < n1; i++) {
+            pooled[i] = new double[]{sample[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            pooled[n1 + i] = new double[]{reference[i], 1};
+        }
+        Arrays.sort(pooled, Comparator.comparingDouble(value -> value[0]));
+
+        double sampleRankSum = 0;
+        double tieCorrection = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && pooled[j][0] == pooled[i][0]) {
+                j++;
+            }
+            double averageRank = (i + j + 1) / 2.0;
+            for (int k = i; k < j; k++) {
+                if (pooled[k][1] == 0) {
+                    sampleRankSum += averageRank;
+                }
+            }
+            int ties = j - i;
+            tieCorrection += (double) ties * ties * ties - ties;
+            i = j;
+        }
+
+        double u = sampleRankSum - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2.0;
+        double variance = n1 * (double) n2 / 12.0 * ((n + 1) - tieCorrection / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1.0 - normalCdf(z);
+    }
+
+    private static Map<String, List<PerfSample>> byPhase(List<List<PerfSample>> runs) {
+        var byPhase = new LinkedHashMap<String, List<PerfSample>>();
+        for (var run : runs) {
+            for (var sample : run) {
+                byPhase.computeIfAbsent(sample.test() + '\t' + sample.phase(), key -> new ArrayList<>()).add(sample);
+            }
+        }
+        return byPhase;
+    }
+
+    private static double[] durations(List<PerfSample> samples) {
+        return samples.stream().mapToDouble(PerfSample::durationMillis).toArray();
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+    }
+
+    private static double normalCdf(double z) {
+        return 0.5 * (1 + erf(z / Math.sqrt(2)));
+    }
+
+    // Abramowitz and Stegun 7.1.26, accurate to about 1e-7, plenty for a significance threshold.
+    private static double erf(double x) {
+        double sign = Math.signum(x);
+        x = Math.abs(x);
+        double t = 1 / (1 + 0.3275911 * x);
+        double y = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592) * t * Math.exp(-x * x);
+        return sign * y;
+    }
+}
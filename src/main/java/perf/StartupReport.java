@@ -0,0 +1,70 @@
+package perf;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records how long the JVM took to get to the first test, labelled with whether an AppCDS archive was mapped, and
+ * prints the medians of all runs per label next to the driver setup times, so startup with and without the
+ * {@code fast-startup} profile can be compared on the same machine.
+ */
+public class StartupReport implements TestExecutionListener {
+    public static final String TEST_KEY = "[startup]";
+    private static final String JVM_PHASE = "jvm-to-tests/";
+
+    private String phase;
+    private long startupMillis;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        var runtime = ManagementFactory.getRuntimeMXBean();
+        startupMillis = runtime.getUptime();
+        phase = JVM_PHASE + classDataSharing(runtime.getInputArguments(), runtime.getStartTime());
+        PerfRecorder.record(TEST_KEY, phase, startupMillis);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        var byPhase = new TreeMap<String, ArrayList<Long>>();
+        try {
+            for (var sample : PerfHistory.load()) {
+                if (sample.test().equals(TEST_KEY) && sample.environment().equals(PerfHistory.environment())) {
+                    byPhase.computeIfAbsent(sample.phase(), key -> new ArrayList<>()).add(sample.durationMillis());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not read startup history: " + e.getMessage());
+        }
+
+        var report = new StringBuilder(String.format("Startup: %d ms from JVM start to the first test (%s)%n", startupMillis, phase));
+        for (Map.Entry<String, ArrayList<Long>> entry : byPhase.entrySet()) {
+            var durations = entry.getValue();
+            durations.sort(null);
+            report.append(String.format("  %-32s median %6d ms over %d run(s)%n", entry.getKey(), durations.get(durations.size() / 2), durations.size()));
+        }
+        System.out.print(report);
+    }
+
+    private static String classDataSharing(Iterable<String> jvmArguments, long jvmStartTime) {
+        for (String argument : jvmArguments) {
+            if (argument.startsWith("-XX:SharedArchiveFile=")) {
+                Path archive = Path.of(argument.substring("-XX:SharedArchiveFile=".length()));
+                try {
+                    // An archive older than the JVM was there to be mapped; otherwise this run is the one writing it.
+                    return Files.getLastModifiedTime(archive).toMillis() < jvmStartTime ? "appcds" : "appcds-first-run";
+                } catch (IOException e) {
+                    return "appcds-first-run";
+                }
+            }
+        }
+        return "default";
+    }
+}
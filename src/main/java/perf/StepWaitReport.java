@@ -0,0 +1,45 @@
+package perf;
+
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * With {@code -Djfr.stepReport=true}, streams the test-step events of the running suite into a
+ * {@link FlightRecordingAnalyzer} and prints its summary when the test plan finishes. Only the test-step events
+ * are enabled, so the recording adds next to nothing to the run.
+ */
+public class StepWaitReport implements TestExecutionListener {
+    private static final boolean ENABLED = Boolean.getBoolean("jfr.stepReport");
+
+    private RecordingStream stream;
+    private FlightRecordingAnalyzer analyzer;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        TestStepEvent.registerAll();
+        if (!ENABLED) {
+            return;
+        }
+
+        analyzer = new FlightRecordingAnalyzer();
+        stream = new RecordingStream();
+        for (String name : FlightRecordingAnalyzer.EVENT_NAMES) {
+            stream.enable(name);
+            stream.onEvent(name, analyzer::accept);
+        }
+        stream.startAsync();
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (stream == null) {
+            return;
+        }
+
+        // Unlike close, stop delivers the events still buffered before returning.
+        stream.stop();
+        stream.close();
+        System.out.print(analyzer.report());
+    }
+}
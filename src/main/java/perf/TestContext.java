@@ -0,0 +1,21 @@
+package perf;
+
+/**
+ * Name of the test the current thread works for. Inherited by threads started from the test thread, which covers
+ * the virtual threads the setup steps run on; pooled threads created earlier report no test.
+ */
+public class TestContext {
+    private static final InheritableThreadLocal<String> currentTest = new InheritableThreadLocal<>();
+
+    public static String currentTest() {
+        return currentTest.get();
+    }
+
+    public static void enter(String testName) {
+        currentTest.set(testName);
+    }
+
+    public static void leave() {
+        currentTest.remove();
+    }
+}
@@ -0,0 +1,63 @@
+package perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Common fields of the test-step flight recorder events. Events are only committed while a recording with them enabled
+ * is running; otherwise {@link #begin()} and {@link #commit()} cost next to nothing.
+ */
+@Category("Authentication Tests")
+@StackTrace(false)
+public abstract class TestStepEvent extends Event {
+    @Label("Step")
+    @Description("Endpoint, operation or command the test was waiting for")
+    String step;
+
+    @Label("Test")
+    String testName;
+
+    @Label("User Id")
+    String userId;
+
+    @Label("Inbox Id")
+    String inboxId;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Registers the event classes up front. Left to first use, the first event may be created on a virtual thread,
+     * where JFR can fail to instrument the class.
+     */
+    public static void registerAll() {
+        FlightRecorder.register(ProvisioningEvent.class);
+        FlightRecorder.register(MailslurpEvent.class);
+        FlightRecorder.register(AuthBypassEvent.class);
+        FlightRecorder.register(WebDriverCommandEvent.class);
+    }
+
+    TestStepEvent(String step) {
+        this.step = step;
+        this.testName = TestContext.currentTest();
+    }
+
+    public TestStepEvent userId(Object userId) {
+        this.userId = userId == null ? null : String.valueOf(userId);
+        return this;
+    }
+
+    public TestStepEvent inboxId(Object inboxId) {
+        this.inboxId = inboxId == null ? null : String.valueOf(inboxId);
+        return this;
+    }
+
+    public TestStepEvent failed() {
+        this.failed = true;
+        return this;
+    }
+}
@@ -0,0 +1,14 @@
+package perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("tests.WebDriverCommand")
+@Label("WebDriver Command")
+@Description("WebDriver command issued by a test")
+public class WebDriverCommandEvent extends TestStepEvent {
+    public WebDriverCommandEvent(String step) {
+        super(step);
+    }
+}
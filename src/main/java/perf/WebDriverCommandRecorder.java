@@ -0,0 +1,39 @@
+package perf;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Emits a {@link WebDriverCommandEvent} for every call on a decorated driver and the elements, navigation and options it
+ * hands out, named after the interface method, e.g. {@code WebElement.click}.
+ */
+public class WebDriverCommandRecorder implements WebDriverListener {
+    private final ThreadLocal<Deque<WebDriverCommandEvent>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        var event = new WebDriverCommandEvent(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        event.begin();
+        inFlight.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        var event = inFlight.get().poll();
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        var event = inFlight.get().poll();
+        if (event != null) {
+            event.failed().commit();
+        }
+    }
+}
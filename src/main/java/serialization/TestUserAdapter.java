@@ -0,0 +1,73 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import models.TestUser;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes only the fields the backend knows about. The Mailslurp inbox attached to a user stays local.
+ */
+public class TestUserAdapter extends TypeAdapter<TestUser> {
+    public static final TestUserAdapter INSTANCE = new TestUserAdapter();
+
+    @Override
+    public void write(JsonWriter out, TestUser user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("id").value(user.getId());
+        writeIfPresent(out, "username", user.getUsername());
+        writeIfPresent(out, "email", user.getEmail());
+        writeIfPresent(out, "password", user.getPassword());
+        writeIfPresent(out, "phone", user.getPhone());
+        writeIfPresent(out, "status", user.getStatus());
+        if (user.getTwoFA() != null) {
+            out.name("twoFA");
+            TwoFAAdapter.INSTANCE.write(out, user.getTwoFA());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public TestUser read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        var user = new TestUser();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> user.setId(in.nextInt());
+                case "username" -> user.setUsername(in.nextString());
+                case "email" -> user.setEmail(in.nextString());
+                case "password" -> user.setPassword(in.nextString());
+                case "phone" -> user.setPhone(in.nextString());
+                case "status" -> user.setStatus(in.nextString());
+                case "twoFA" -> user.setTwoFA(TwoFAAdapter.INSTANCE.read(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return user;
+    }
+
+    static void writeIfPresent(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
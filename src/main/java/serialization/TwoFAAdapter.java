@@ -0,0 +1,53 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import models.TwoFA;
+
+import java.io.IOException;
+
+public class TwoFAAdapter extends TypeAdapter<TwoFA> {
+    public static final TwoFAAdapter INSTANCE = new TwoFAAdapter();
+
+    @Override
+    public void write(JsonWriter out, TwoFA twoFA) throws IOException {
+        if (twoFA == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        if (twoFA.getSecret() != null) {
+            out.name("secret").value(twoFA.getSecret());
+        }
+        out.name("enabled").value(twoFA.isEnabled());
+        out.endObject();
+    }
+
+    @Override
+    public TwoFA read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        var twoFA = new TwoFA();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "secret" -> twoFA.setSecret(in.nextString());
+                case "enabled" -> twoFA.setEnabled(in.nextBoolean());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return twoFA;
+    }
+}
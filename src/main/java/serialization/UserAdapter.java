@@ -0,0 +1,71 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import models.User;
+
+import java.io.IOException;
+
+import static serialization.TestUserAdapter.writeIfPresent;
+
+public class UserAdapter extends TypeAdapter<User> {
+    public static final UserAdapter INSTANCE = new UserAdapter();
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        writeIfPresent(out, "firstName", user.getFirstName());
+        writeIfPresent(out, "userName", user.getUserName());
+        writeIfPresent(out, "lastName", user.getLastName());
+        writeIfPresent(out, "email", user.getEmail());
+        writeIfPresent(out, "telephone", user.getTelephone());
+        writeIfPresent(out, "password", user.getPassword());
+        writeIfPresent(out, "passwordConfirm", user.getPasswordConfirm());
+        if (user.getShouldSubscribe() != null) {
+            out.name("shouldSubscribe").value(user.getShouldSubscribe());
+        }
+        if (user.getAgreedPrivacyPolicy() != null) {
+            out.name("agreedPrivacyPolicy").value(user.getAgreedPrivacyPolicy());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        var user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "firstName" -> user.setFirstName(in.nextString());
+                case "userName" -> user.setUserName(in.nextString());
+                case "lastName" -> user.setLastName(in.nextString());
+                case "email" -> user.setEmail(in.nextString());
+                case "telephone" -> user.setTelephone(in.nextString());
+                case "password" -> user.setPassword(in.nextString());
+                case "passwordConfirm" -> user.setPasswordConfirm(in.nextString());
+                case "shouldSubscribe" -> user.setShouldSubscribe(in.nextBoolean());
+                case "agreedPrivacyPolicy" -> user.setAgreedPrivacyPolicy(in.nextBoolean());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return user;
+    }
+}
@@ -0,0 +1,109 @@
+package serialization;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import models.TestUser;
+import models.TwoFA;
+import models.User;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Request and response bodies for the backend models, written by the hand-written adapters instead of reflection.
+ * Each thread serializes into its own reused buffer, so building a body allocates little more than the final string.
+ */
+public class WireJson {
+    private static final Map<Class<?>, TypeAdapter<?>> adapters = Map.of(
+            TestUser.class, TestUserAdapter.INSTANCE,
+            User.class, UserAdapter.INSTANCE,
+            TwoFA.class, TwoFAAdapter.INSTANCE
+    );
+    private static final ThreadLocal<StringBuilderWriter> buffers = ThreadLocal.withInitial(StringBuilderWriter::new);
+    // Buffers that grew past this size are dropped instead of being kept around by the thread.
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    public static <T> String toJson(T value) {
+        @SuppressWarnings("unchecked")
+        var adapter = (TypeAdapter<T>) adapterFor(value.getClass());
+        var buffer = buffers.get();
+        buffer.reset();
+        try {
+            adapter.write(new JsonWriter(buffer), value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        String json = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return json;
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) {
+        return fromJson(new StringReader(json), type);
+    }
+
+    public static <T> T fromJson(Reader json, Class<T> type) {
+        try {
+            return adapterFor(type).read(new JsonReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> TypeAdapter<T> adapterFor(Class<T> type) {
+        var adapter = (TypeAdapter<T>) adapters.get(type);
+        if (adapter == null) {
+            throw new IllegalArgumentException("No wire adapter for " + type.getName());
+        }
+        return adapter;
+    }
+
+    private static class StringBuilderWriter extends Writer {
+        private final StringBuilder builder = new StringBuilder(512);
+
+        void reset() {
+            builder.setLength(0);
+        }
+
+        int capacity() {
+            return builder.capacity();
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            builder.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+            builder.append(value, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
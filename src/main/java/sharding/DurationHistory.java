@@ -0,0 +1,70 @@
+package sharding;
+
+import utilities.TestKeys;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-test duration estimates kept in a local properties file, keyed by {@link TestKeys#fromUniqueId}.
+ * Each run folds its measurements in as an exponentially weighted moving average, so one slow run does not reshuffle the shards.
+ */
+public class DurationHistory {
+    private static final Path HISTORY_FILE = Path.of(System.getProperty("shard.historyFile", ".test-state/test-durations.properties"));
+    private static final Path LOCK_FILE = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".lock");
+    private static final double SMOOTHING = Double.parseDouble(System.getProperty("shard.smoothing", "0.3"));
+
+    public static Map<String, Long> load() {
+        var estimates = new HashMap<String, Long>();
+        if (!Files.exists(HISTORY_FILE)) {
+            return estimates;
+        }
+
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(HISTORY_FILE, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        properties.forEach((key, value) -> estimates.put((String) key, Long.parseLong((String) value)));
+        return estimates;
+    }
+
+    public static void update(Map<String, Long> measuredMillis) {
+        if (measuredMillis.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+            try (FileChannel lockChannel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                var estimates = load();
+                measuredMillis.forEach((key, measured) -> estimates.merge(key, measured,
+                        (previous, current) -> Math.round(previous + SMOOTHING * (current - previous))));
+
+                var properties = new Properties();
+                estimates.forEach((key, value) -> properties.setProperty(key, String.valueOf(value)));
+                Path temp = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    properties.store(writer, "Per-test duration estimates in milliseconds, used by the shard planner");
+                }
+                Files.move(temp, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not update test duration history: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package sharding;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import utilities.TestKeys;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures every executed test and container and folds the durations into {@link DurationHistory} when the run ends.
+ * Skipped tests are not measured, so their estimates keep the last real value.
+ */
+public class DurationRecorder implements TestExecutionListener {
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> measuredMillis = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        startedAt.put(testIdentifier.getUniqueId(), System.nanoTime());
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = startedAt.remove(testIdentifier.getUniqueId());
+        if (start == null || testIdentifier.getParentId().isEmpty()) {
+            return;
+        }
+        measuredMillis.put(TestKeys.fromUniqueId(testIdentifier.getUniqueId()), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        DurationHistory.update(measuredMillis);
+        measuredMillis.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package sharding;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import utilities.TestKeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps only the tests planned for shard {@code shard.index} out of {@code shard.count}. Without those properties every test runs.
+ * A test is a leaf of the discovered tree, so parameterized tests stay together in one shard.
+ * <p>
+ * One shard is one JVM: run {@code mvn test -Dshard.index=i -Dshard.count=k} once per CI job or per local process.
+ * The properties are the same in every surefire fork, and surefire hands each test class to only one fork, so
+ * {@code forkCount > 1} cannot be mapped onto shards; keep the default single fork when sharding.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final int SHARD_INDEX = Integer.getInteger("shard.index", 0);
+    private static final int SHARD_COUNT = Integer.getInteger("shard.count", 1);
+
+    private final Map<String, Map<String, Integer>> plansByEngine = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (SHARD_COUNT <= 1 || !descriptor.getChildren().isEmpty() || descriptor.getParent().isEmpty()) {
+            return FilterResult.included("sharding disabled or not a test");
+        }
+
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        TestDescriptor engine = root;
+        var plan = plansByEngine.computeIfAbsent(engine.getUniqueId().toString(), key -> plan(engine));
+        int shard = plan.getOrDefault(TestKeys.fromUniqueId(descriptor.getUniqueId().toString()), 0);
+        return FilterResult.includedIf(shard == SHARD_INDEX,
+                () -> "planned for shard " + SHARD_INDEX,
+                () -> "planned for shard " + shard);
+    }
+
+    private static Map<String, Integer> plan(TestDescriptor root) {
+        List<String> keys = new ArrayList<>();
+        for (var descendant : root.getDescendants()) {
+            if (descendant.getChildren().isEmpty()) {
+                keys.add(TestKeys.fromUniqueId(descendant.getUniqueId().toString()));
+            }
+        }
+        return ShardPlanner.plan(keys, DurationHistory.load(), SHARD_COUNT);
+    }
+}
@@ -0,0 +1,50 @@
+package sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits tests into balanced shards with greedy longest-first bin packing over their recorded durations.
+ * The plan only depends on the test keys and the history file, so every fork or CI machine computes the same one.
+ */
+public class ShardPlanner {
+    private static final long DEFAULT_ESTIMATE_MILLIS = 1000L;
+
+    public static Map<String, Integer> plan(List<String> testKeys, Map<String, Long> estimates, int shardCount) {
+        long unknownEstimate = median(testKeys, estimates);
+        var ordered = new ArrayList<>(testKeys);
+        ordered.sort(Comparator.<String>comparingLong(key -> estimates.getOrDefault(key, unknownEstimate)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        long[] loads = new long[shardCount];
+        var assignment = new HashMap<String, Integer>();
+        for (var key : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += estimates.getOrDefault(key, unknownEstimate);
+            assignment.put(key, lightest);
+        }
+        return assignment;
+    }
+
+    private static long median(List<String> testKeys, Map<String, Long> estimates) {
+        var known = new ArrayList<Long>();
+        for (var key : testKeys) {
+            if (estimates.containsKey(key)) {
+                known.add(estimates.get(key));
+            }
+        }
+        if (known.isEmpty()) {
+            return DEFAULT_ESTIMATE_MILLIS;
+        }
+        known.sort(Comparator.naturalOrder());
+        return known.get(known.size() / 2);
+    }
+}
@@ -0,0 +1,360 @@
+package utilities;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-pass tokenizer for email HTML. It walks the markup once without building a DOM,
+ * reporting start tags with their attributes and the visible text between them; script, style and comments are skipped.
+ * Plain-text bodies come through as a single text segment, so the helpers work on both.
+ */
+public class HtmlEmailTokenizer {
+    private static final Pattern URL_IN_TEXT = Pattern.compile("https?://[^\\s\"'<>]+");
+    private static final Map<String, String> ENTITIES = Map.of(
+            "amp", "&", "lt", "<", "gt", ">", "quot", "\"", "apos", "'", "nbsp", " ");
+
+    public interface Visitor {
+        /**
+         * @return false to stop tokenizing
+         */
+        default boolean onStartTag(String tag, Map<String, String> attributes) {
+            return true;
+        }
+
+        /**
+         * @return false to stop tokenizing
+         */
+        default boolean onText(String text) {
+            return true;
+        }
+    }
+
+    public static void tokenize(CharSequence html, Visitor visitor) {
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c != '<' || i + 1 >= length) {
+                int end = indexOf(html, "<", i + 1);
+                if (!emitText(html, i, end, visitor)) {
+                    return;
+                }
+                i = end;
+                continue;
+            }
+
+            char next = html.charAt(i + 1);
+            if (startsWith(html, i, "<!--")) {
+                i = skipPast(html, i + 4, "-->");
+            } else if (next == '!' || next == '?' || next == '/') {
+                i = skipPast(html, i + 2, ">");
+            } else if (Character.isLetter(next)) {
+                int nameEnd = i + 1;
+                while (nameEnd < length && isNameChar(html.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                String tag = html.subSequence(i + 1, nameEnd).toString().toLowerCase(Locale.ROOT);
+                var attributes = new LinkedHashMap<String, String>();
+                i = readAttributes(html, nameEnd, attributes);
+                if (!visitor.onStartTag(tag, attributes)) {
+                    return;
+                }
+                if (tag.equals("script") || tag.equals("style")) {
+                    i = skipPastIgnoreCase(html, i, "</" + tag);
+                    i = skipPast(html, i, ">");
+                }
+            } else {
+                int end = indexOf(html, "<", i + 1);
+                if (!emitText(html, i, end, visitor)) {
+                    return;
+                }
+                i = end;
+            }
+        }
+    }
+
+    /**
+     * Returns every link in document order: {@code href} values first seen in tags, and bare URLs in the text.
+     */
+    public static List<String> links(CharSequence html) {
+        var links = new ArrayList<String>();
+        tokenize(html, new Visitor() {
+            @Override
+            public boolean onStartTag(String tag, Map<String, String> attributes) {
+                String href = attributes.get("href");
+                if (href != null && !href.isBlank()) {
+                    links.add(href.trim());
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onText(String text) {
+                Matcher matcher = URL_IN_TEXT.matcher(text);
+                while (matcher.find()) {
+                    links.add(matcher.group());
+                }
+                return true;
+            }
+        });
+        return links;
+    }
+
+    /**
+     * Returns the first absolute link pointing to the given host (any host when null) whose path starts with the prefix (any path when null).
+     * Stops tokenizing as soon as it is found.
+     */
+    public static Optional<URI> firstLink(CharSequence html, String host, String pathPrefix) {
+        URI[] found = new URI[1];
+        tokenize(html, new Visitor() {
+            @Override
+            public boolean onStartTag(String tag, Map<String, String> attributes) {
+                String href = attributes.get("href");
+                return href == null || !matches(href.trim());
+            }
+
+            @Override
+            public boolean onText(String text) {
+                Matcher matcher = URL_IN_TEXT.matcher(text);
+                while (matcher.find()) {
+                    if (matches(matcher.group())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private boolean matches(String link) {
+                URI uri;
+                try {
+                    uri = URI.create(link);
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+                if (uri.getHost() == null
+                        || (host != null && !uri.getHost().equalsIgnoreCase(host))
+                        || (pathPrefix != null && (uri.getPath() == null || !uri.getPath().startsWith(pathPrefix)))) {
+                    return false;
+                }
+                found[0] = uri;
+                return true;
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    public static List<String> textSegments(CharSequence html) {
+        var segments = new ArrayList<String>();
+        tokenize(html, new Visitor() {
+            @Override
+            public boolean onText(String text) {
+                segments.add(text);
+                return true;
+            }
+        });
+        return segments;
+    }
+
+    /**
+     * Returns the {@code data-*} attributes found in the email, keyed by attribute name; the first occurrence wins.
+     */
+    public static Map<String, String> dataAttributes(CharSequence html) {
+        var data = new LinkedHashMap<String, String>();
+        tokenize(html, new Visitor() {
+            @Override
+            public boolean onStartTag(String tag, Map<String, String> attributes) {
+                attributes.forEach((name, value) -> {
+                    if (name.startsWith("data-")) {
+                        data.putIfAbsent(name, value);
+                    }
+                });
+                return true;
+            }
+        });
+        return data;
+    }
+
+    /**
+     * Runs the pattern against each visible text segment and returns its first group from the first match.
+     */
+    public static Optional<String> findInText(CharSequence html, Pattern pattern) {
+        String[] found = new String[1];
+        tokenize(html, new Visitor() {
+            @Override
+            public boolean onText(String text) {
+                Matcher matcher = pattern.matcher(text);
+                if (matcher.find()) {
+                    found[0] = matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+                    return false;
+                }
+                return true;
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    private static int readAttributes(CharSequence html, int from, Map<String, String> attributes) {
+        int length = html.length();
+        int i = from;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '>') {
+                return i + 1;
+            }
+            if (Character.isWhitespace(c) || c == '/') {
+                i++;
+                continue;
+            }
+
+            int nameStart = i;
+            while (i < length && !Character.isWhitespace(html.charAt(i)) && "=>/".indexOf(html.charAt(i)) < 0) {
+                i++;
+            }
+            String name = html.subSequence(nameStart, i).toString().toLowerCase(Locale.ROOT);
+            while (i < length && Character.isWhitespace(html.charAt(i))) {
+                i++;
+            }
+            if (i >= length || html.charAt(i) != '=') {
+                attributes.putIfAbsent(name, "");
+                continue;
+            }
+
+            i++;
+            while (i < length && Character.isWhitespace(html.charAt(i))) {
+                i++;
+            }
+            int valueStart;
+            int valueEnd;
+            if (i < length && (html.charAt(i) == '"' || html.charAt(i) == '\'')) {
+                char quote = html.charAt(i);
+                valueStart = i + 1;
+                valueEnd = indexOf(html, String.valueOf(quote), valueStart);
+                i = Math.min(valueEnd + 1, length);
+            } else {
+                valueStart = i;
+                while (i < length && !Character.isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+                    i++;
+                }
+                valueEnd = i;
+            }
+            attributes.putIfAbsent(name, decodeEntities(html, valueStart, valueEnd));
+        }
+        return length;
+    }
+
+    private static boolean emitText(CharSequence html, int start, int end, Visitor visitor) {
+        String text = decodeEntities(html, start, end).replaceAll("\\s+", " ").trim();
+        return text.isEmpty() || visitor.onText(text);
+    }
+
+    private static String decodeEntities(CharSequence html, int start, int end) {
+        // Bounded by end: scanning on to the next '&' of the document would make tokenizing quadratic.
+        int ampersand = indexOf(html, '&', start, end);
+        if (ampersand >= end) {
+            return html.subSequence(start, end).toString();
+        }
+
+        var decoded = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            char c = html.charAt(i);
+            int semicolon = c == '&' ? entityEnd(html, i + 1, end) : end;
+            if (semicolon >= end) {
+                decoded.append(c);
+                i++;
+                continue;
+            }
+
+            String entity = html.subSequence(i + 1, semicolon).toString();
+            String replacement = ENTITIES.get(entity.toLowerCase(Locale.ROOT));
+            if (replacement == null && entity.startsWith("#")) {
+                try {
+                    int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                            ? Integer.parseInt(entity.substring(2), 16)
+                            : Integer.parseInt(entity.substring(1));
+                    replacement = new String(Character.toChars(codePoint));
+                } catch (IllegalArgumentException e) {
+                    replacement = null;
+                }
+            }
+
+            if (replacement == null) {
+                decoded.append(c);
+                i++;
+            } else {
+                decoded.append(replacement);
+                i = semicolon + 1;
+            }
+        }
+        return decoded.toString();
+    }
+
+    private static int entityEnd(CharSequence html, int from, int end) {
+        int limit = Math.min(end, from + 10);
+        for (int i = from; i < limit; i++) {
+            if (html.charAt(i) == ';') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == ':';
+    }
+
+    private static boolean startsWith(CharSequence text, int at, String prefix) {
+        if (at + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(at + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, String needle, int from) {
+        for (int i = Math.max(from, 0); i <= text.length() - needle.length(); i++) {
+            if (startsWith(text, i, needle)) {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    private static int indexOf(CharSequence text, char needle, int from, int end) {
+        for (int i = Math.max(from, 0); i < end; i++) {
+            if (text.charAt(i) == needle) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int skipPast(CharSequence text, int from, String needle) {
+        return Math.min(indexOf(text, needle, from) + needle.length(), text.length());
+    }
+
+    private static int skipPastIgnoreCase(CharSequence text, int from, String needle) {
+        for (int i = from; i <= text.length() - needle.length(); i++) {
+            int matched = 0;
+            while (matched < needle.length()
+                    && Character.toLowerCase(text.charAt(i + matched)) == Character.toLowerCase(needle.charAt(matched))) {
+                matched++;
+            }
+            if (matched == needle.length()) {
+                return i + needle.length();
+            }
+        }
+        return text.length();
+    }
+}
@@ -0,0 +1,176 @@
+package utilities;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads classpath resources once and serves them from a bounded LRU cache, keyed by the resolved resource URL so the same
+ * relative name in two modules does not collide.
+ * Resources that live on disk are memory-mapped instead of copied to the heap;
+ * {@link #getText} hands out the decoded content as a shared {@link CharSequence}, and {@link #openReader} streams it for large fixtures.
+ */
+@UtilityClass
+public class ResourceLoader {
+    private static long maxCachedBytes = Long.getLong("resources.cacheBytes", 32L * 1024 * 1024);
+    private static final Map<String, CachedResource> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes;
+
+    private static final class CachedResource {
+        private final String key;
+        private final ByteBuffer bytes;
+        private String text;
+
+        private CachedResource(String key, ByteBuffer bytes) {
+            this.key = key;
+            this.bytes = bytes;
+        }
+
+        private long weight() {
+            return bytes.capacity() + (text == null ? 0L : 2L * text.length());
+        }
+    }
+
+    /**
+     * Returns a read-only view of the raw resource content, memory-mapped when the resource is a file on disk.
+     */
+    public static ByteBuffer getBytes(Class<?> moduleClass, String fileName) {
+        return resource(moduleClass, fileName).bytes.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the UTF-8 decoded content. The same instance is shared by all callers until it is evicted.
+     */
+    public static CharSequence getText(Class<?> moduleClass, String fileName) {
+        CachedResource resource = resource(moduleClass, fileName);
+        synchronized (cache) {
+            if (resource.text == null) {
+                long before = resource.weight();
+                resource.text = StandardCharsets.UTF_8.decode(resource.bytes.duplicate()).toString();
+                if (cache.get(resource.key) == resource) {
+                    cachedBytes += resource.weight() - before;
+                    evict();
+                }
+            }
+            return resource.text;
+        }
+    }
+
+    /**
+     * Returns a window over the decoded content without copying it.
+     */
+    public static CharSequence getText(Class<?> moduleClass, String fileName, int start, int end) {
+        return CharBuffer.wrap(getText(moduleClass, fileName), start, end);
+    }
+
+    /**
+     * Streams the content straight from the cached buffer without decoding it up front.
+     */
+    public static Reader openReader(Class<?> moduleClass, String fileName) {
+        ByteBuffer source = getBytes(moduleClass, fileName);
+        ReadableByteChannel channel = new ReadableByteChannel() {
+            private boolean open = true;
+
+            @Override
+            public int read(ByteBuffer destination) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(source.remaining(), destination.remaining());
+                ByteBuffer slice = source.slice(source.position(), count);
+                destination.put(slice);
+                source.position(source.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+            }
+        };
+        return Channels.newReader(channel, StandardCharsets.UTF_8);
+    }
+
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * Overrides {@code resources.cacheBytes}, for tests.
+     */
+    static void setMaxCachedBytes(long bytes) {
+        synchronized (cache) {
+            maxCachedBytes = bytes;
+            evict();
+        }
+    }
+
+    private static CachedResource resource(Class<?> moduleClass, String fileName) {
+        URL url = moduleClass.getResource("/" + fileName);
+        if (url == null) {
+            return new CachedResource(null, ByteBuffer.allocate(0));
+        }
+
+        String key = url.toExternalForm();
+        synchronized (cache) {
+            CachedResource cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CachedResource loaded = new CachedResource(key, load(url));
+        synchronized (cache) {
+            CachedResource raced = cache.putIfAbsent(key, loaded);
+            if (raced != null) {
+                return raced;
+            }
+            cachedBytes += loaded.weight();
+            evict();
+            return loaded;
+        }
+    }
+
+    @SneakyThrows
+    private static ByteBuffer load(URL url) {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        try (InputStream input = url.openStream()) {
+            return ByteBuffer.wrap(input.readAllBytes());
+        }
+    }
+
+    private static void evict() {
+        Iterator<CachedResource> leastRecentlyUsed = cache.values().iterator();
+        while (cachedBytes > maxCachedBytes && cache.size() > 1 && leastRecentlyUsed.hasNext()) {
+            cachedBytes -= leastRecentlyUsed.next().weight();
+            leastRecentlyUsed.remove();
+        }
+    }
+}
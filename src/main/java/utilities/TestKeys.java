@@ -0,0 +1,15 @@
+package utilities;
+
+/**
+ * The name a test is stored under in the files kept across runs, e.g. the shard plan's duration history and the perf history.
+ */
+public class TestKeys {
+
+    /**
+     * "[engine:junit-jupiter]/[class:...]/[method:...]" -> "[class:...]/[method:...]", so the history survives a change of engine.
+     */
+    public static String fromUniqueId(String uniqueId) {
+        int engineEnd = uniqueId.indexOf("]/");
+        return engineEnd < 0 ? uniqueId : uniqueId.substring(engineEnd + 2);
+    }
+}
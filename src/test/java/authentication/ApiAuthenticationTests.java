@@ -0,0 +1,49 @@
+package authentication;
+
+import extensions.TestContextExtension;
+import factories.TestUserFactory;
+import infrastructure.AuthBypassService;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Browserless authentication checks. Run with the virtual-threads profile, every check gets its own virtual thread,
+ * so {@code -Dapi.concurrentChecks} can go into the thousands. The users the checks provision belong to the factory
+ * method and are handed to cleanup only after its last check has finished, whatever {@code cleanup.threshold} is.
+ */
+@Tag("api")
+@ExtendWith(TestContextExtension.class)
+public class ApiAuthenticationTests {
+    private static final int CONCURRENT_CHECKS = Integer.getInteger("api.concurrentChecks", 100);
+
+    @TestFactory
+    public Stream<DynamicTest> authCookieOpensProfile_forProvisionedUsers() {
+        return IntStream.range(0, CONCURRENT_CHECKS)
+                .mapToObj(check -> DynamicTest.dynamicTest("auth check " + check, this::authCookieOpensProfile));
+    }
+
+    private void authCookieOpensProfile() {
+        var testUser = TestUserFactory.createDefault();
+        var authCookie = AuthBypassService.generateAuthCookie(testUser.getUsername(), testUser.getPassword(), String.valueOf(testUser.getId()));
+
+        RestAssured.useRelaxedHTTPSValidation();
+        var profile = given()
+                .baseUri("https://chesstv.local:3000/")
+                .cookie("auth", authCookie)
+                .cookie("userId", String.valueOf(testUser.getId()))
+                .when()
+                .get("/profile");
+
+        Assertions.assertEquals(200, profile.statusCode());
+        Assertions.assertTrue(profile.asString().contains(testUser.getUsername()));
+    }
+}
@@ -1,42 +1,49 @@
 package authentication;
 
 import com.mailslurp.clients.ApiException;
-import com.mailslurp.models.Email;
+import extensions.FailureForensicsExtension;
+import extensions.PerfHistoryExtension;
+import extensions.RegistrationCases;
+import extensions.TestContextExtension;
+import factories.RegistrationDataSet;
 import factories.TestUserFactory;
-import infrastructure.AuthBypassService;
+import infrastructure.DriverFactory;
+import infrastructure.DriverResolutionCache;
+import infrastructure.EmailExtractor;
+import infrastructure.EmailMatch;
+import infrastructure.Forms;
 import infrastructure.MailslurpService;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import infrastructure.SessionInjector;
+import infrastructure.TestResourceTracker;
 import models.UserStatus;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
 import org.openqa.selenium.By;
-import org.openqa.selenium.Cookie;
-import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 
+import java.net.URI;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static io.restassured.RestAssured.given;
 
+@ExtendWith({TestContextExtension.class, FailureForensicsExtension.class, PerfHistoryExtension.class})
 public class AuthenticationTests {
+    private static final long REJECTION_WAIT_MILLIS = Long.getLong("registration.rejectionWaitMillis", 15000L);
+
     private WebDriver driver;
 
     @BeforeAll
     public static void setUpClass() {
-        WebDriverManager.chromedriver().setup();
+        DriverResolutionCache.setupChromeDriver();
     }
 
     @BeforeEach
     public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--ignore-certificate-errors");
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
+        driver = DriverFactory.createChromeDriver();
     }
 
     @Test
@@ -46,18 +53,7 @@ public class AuthenticationTests {
         var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
         loginTab.click();
 
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys("john@example.com");
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys("password123");
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
+        Forms.login(driver, "john@example.com", "password123").apply();
 
         var userName = driver.findElement(By.id("username"));
 
@@ -74,18 +70,7 @@ public class AuthenticationTests {
         var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
         loginTab.click();
 
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys("john@example.com");
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys("password123");
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
+        Forms.login(driver, "john@example.com", "password123").apply();
 
         var userName = driver.findElement(By.id("username"));
 
@@ -95,15 +80,9 @@ public class AuthenticationTests {
 
         driver.quit();
 
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--ignore-certificate-errors");
-        driver = new ChromeDriver(options);
-
-        driver.navigate().to("https://chesstv.local:3000/");
-        for (var cookie : originalCookies) {
-            driver.manage().addCookie(cookie);
-        }
+        driver = new ChromeDriver(DriverFactory.defaultOptions());
 
+        SessionInjector.injectCookies(driver, originalCookies);
         driver.navigate().to("https://chesstv.local:3000/profile");
 
         userName = driver.findElement(By.id("username"));
@@ -122,18 +101,7 @@ public class AuthenticationTests {
         var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
         loginTab.click();
 
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys(testUser.getUsername());
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys(testUser.getPassword());
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
+        Forms.login(driver, testUser.getUsername(), testUser.getPassword()).apply();
 
         var userName = driver.findElement(By.id("username"));
 
@@ -157,18 +125,7 @@ public class AuthenticationTests {
         var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
         logoutButton.click();
 
-        emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys("newUserName");
-        passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys(testUser.getPassword());
-
-        rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
+        Forms.login(driver, "newUserName", testUser.getPassword()).apply();
 
         userNameEditInput = driver.findElement(By.id("editUsername"));
         Assertions.assertEquals("newUserName", userNameEditInput.getAttribute("value"));
@@ -188,9 +145,10 @@ public class AuthenticationTests {
         var requestPasswordResetButton = driver.findElement(By.xpath("//button[text()='Request Password Reset']"));
         requestPasswordResetButton.click();
 
-        Email receivedEmail = MailslurpService.waitForLatestEmail(testUser.getUserInbox(), OffsetDateTime.now().minusSeconds(30));
-        var activationUrl = extractActivationUrl(receivedEmail.getBody());
-        driver.navigate().to(activationUrl);
+        var resetUrl = MailslurpService.waitForMatchingEmail(testUser.getUserInbox(),
+                EmailMatch.any().receivedSince(OffsetDateTime.now().minusSeconds(30)),
+                EmailExtractor.firstLink("chesstv.local", null));
+        driver.navigate().to(resetUrl.toString());
 
         var resetPasswordTab = driver.findElement(By.id("reset-tab"));
         resetPasswordTab.click();
@@ -205,37 +163,7 @@ public class AuthenticationTests {
         var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
         loginTab.click();
 
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys(testUser.getUsername());
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys("password123");
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
-
-        var userName = driver.findElement(By.id("username"));
-
-        Assertions.assertEquals(testUser.getUsername(), userName.getText());
-
-        var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
-        logoutButton.click();
-    }
-
-    @Test
-    public void fasterLoginWithCookie() {
-        var testUser = TestUserFactory.createDefaultWithRealEmail(UserStatus.ACTIVE);
-        driver.navigate().to("https://chesstv.local:3000/");
-
-        var authCookieValue = AuthBypassService.generateAuthCookie(testUser.getUsername(), testUser.getPassword(), String.valueOf(testUser.getId()));
-        driver.manage().addCookie(new Cookie("auth", authCookieValue));
-        driver.manage().addCookie(new Cookie("userId", String.valueOf(testUser.getId())));
-
-        driver.navigate().to("https://chesstv.local:3000/profile");
+        Forms.login(driver, testUser.getUsername(), "password123").apply();
 
         var userName = driver.findElement(By.id("username"));
 
@@ -273,25 +201,16 @@ public class AuthenticationTests {
 
         var registerTab = driver.findElement(By.xpath("//a[text()='Register']"));
         registerTab.click();
-        var userNameInput = driver.findElement(By.id("registerUsername"));
-        userNameInput.sendKeys(testUser.getUsername());
-        var registerEmailInput = driver.findElement(By.id("registerEmail"));
-        registerEmailInput.sendKeys(testUser.getEmail());
-        var registerPhoneInput = driver.findElement(By.id("registerPhone"));
-        registerPhoneInput.sendKeys(testUser.getPhone());
-        var registerPasswordInput = driver.findElement(By.id("registerPassword"));
-        registerPasswordInput.sendKeys(testUser.getPassword());
-        var confirmPasswordInput = driver.findElement(By.id("confirmPassword"));
-        confirmPasswordInput.sendKeys(testUser.getPassword());
-        var registerButton = driver.findElement(By.xpath("//button[text()='Register']"));
-        registerButton.click();
+        Forms.registration(driver, testUser.getUsername(), testUser.getEmail(), testUser.getPhone(),
+                testUser.getPassword(), testUser.getPassword()).apply();
 
         var activateTab = driver.findElement(By.xpath("//a[text()='Activate']"));
         activateTab.click();
 
         var currentTime = OffsetDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
-        Email receivedEmail = MailslurpService.waitForLatestEmail(testUser.getUserInbox(), currentTime);
-        var code = extractActivationCode(receivedEmail.getBody());
+        var code = MailslurpService.waitForMatchingEmail(testUser.getUserInbox(),
+                EmailMatch.any().receivedSince(currentTime).withBodyContaining("activation code"),
+                EmailExtractor.activationCode());
         var activationCodeInput = driver.findElement(By.id("activationCode"));
         activationCodeInput.sendKeys(code);
 
@@ -303,90 +222,56 @@ public class AuthenticationTests {
         var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
         loginTab.click();
 
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys(testUser.getUsername());
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys(testUser.getPassword());
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
+        Forms.login(driver, testUser.getUsername(), testUser.getPassword()).apply();
 
         var userName = driver.findElement(By.id("username"));
 
         Assertions.assertEquals(testUser.getUsername(), userName.getText());
 
+        // The form registered this account behind the factory's back, the session cookie names it for cleanup.
+        var userIdCookie = driver.manage().getCookieNamed("userId");
+        if (userIdCookie != null) {
+            TestResourceTracker.registerUser(Integer.parseInt(userIdCookie.getValue()));
+        }
+
         var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
         logoutButton.click();
     }
 
-    @Test
-    public void loginSuccessfully_usingEmailAndBypass2FA() {
+    @ParameterizedTest(name = "{0}")
+    @RegistrationCases(validity = RegistrationCases.Validity.INVALID)
+    public void registrationRejected_when_fieldIsInvalid(RegistrationDataSet.RegistrationCase registrationCase) {
+        // An accepted registration sends the activation email, so the case needs an address that reaches an inbox.
+        Assumptions.assumeTrue(registrationCase.email() == RegistrationDataSet.EmailVariant.VALID
+                        || registrationCase.email() == RegistrationDataSet.EmailVariant.EXISTING,
+                "An accepted registration with a malformed or missing email is not observable through an inbox");
+        var user = registrationCase.user();
+        var inbox = registrationCase.email() == RegistrationDataSet.EmailVariant.EXISTING
+                ? TestUserFactory.createDefaultWithRealEmail().getUserInbox()
+                : MailslurpService.createInbox(null);
         driver.navigate().to("https://chesstv.local:3000/");
 
-        var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
-        loginTab.click();
-
-        var testUser = TestUserFactory.createDefault2FAWithRealEmail();
-        var emailInput = driver.findElement(By.id("usernameOrEmail"));
-        emailInput.sendKeys(testUser.getEmail());
-        var passwordInput = driver.findElement(By.id("password"));
-        passwordInput.sendKeys(testUser.getPassword());
-
-        var rememberMeCheckbox = driver.findElement(By.id("rememberMe"));
-        rememberMeCheckbox.click();
-
-        byPassCaptcha();
-
-        var loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
-
-        var twoFaCode = AuthBypassService.generate2FAToken(testUser.getId());
-        var twoFACodeInput = driver.findElement(By.id("twoFaToken"));
-        twoFACodeInput.sendKeys(twoFaCode);
-
-        loginButton = driver.findElement(By.xpath("//button[text()='Login']"));
-        loginButton.click();
-
-        var userName = driver.findElement(By.id("username"));
-
-        Assertions.assertEquals(testUser.getUsername(), userName.getText());
-
-        var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
-        logoutButton.click();
-    }
-
-    private void byPassCaptcha() {
-        var captchaByPass = driver.findElement(By.xpath("//input[@name='captcha-bypass']"));
-        JavascriptExecutor jsExecutor = (JavascriptExecutor)driver;
-        jsExecutor.executeScript("arguments[0].setAttribute('value', arguments[1]);", captchaByPass, "10685832-cd90-4e91-9224-2ef69ce88f53");
+        var registerTab = driver.findElement(By.xpath("//a[text()='Register']"));
+        registerTab.click();
+        var submittedAt = OffsetDateTime.now().minusSeconds(5);
+        Forms.registration(driver, user.getUserName(), inbox.getEmailAddress(), user.getTelephone(),
+                user.getPassword(), user.getPasswordConfirm()).apply();
+
+        var activationCode = MailslurpService.findMatchingEmail(inbox,
+                EmailMatch.any().receivedSince(submittedAt).withBodyContaining("activation code"),
+                EmailExtractor.activationCode(), REJECTION_WAIT_MILLIS);
+        Assertions.assertTrue(activationCode.isEmpty(), "Registration was accepted, an activation code was sent to " + inbox.getEmailAddress());
     }
 
     public static String extractActivationCode(String message) {
-        // The regex pattern looks for a sequence of alphanumeric characters after the "Your activation code is:" phrase.
         // Your activation code is: S0KF29
-        Pattern pattern = Pattern.compile(".*\\bYour activation code is: ([a-zA-Z0-9]+)\\s*$");
-        Matcher matcher = pattern.matcher(message);
-
-        if (matcher.matches()) {
-            return matcher.group(1);
-        }
-        return null;
+        return EmailExtractor.activationCode().extract(message).orElse(null);
     }
 
     public static String extractActivationUrl(String message) {
-        // The regex pattern looks for a URL format.
-        Pattern pattern = Pattern.compile("http[s]?://[^\\s\"]+");
-        Matcher matcher = pattern.matcher(message);
-
-        if (matcher.find()) {
-            return matcher.group(0);  // Returns the first occurrence of the pattern
-        }
-        return null;
+        return EmailExtractor.firstLink("chesstv.local", null).extract(message)
+                .map(URI::toString)
+                .orElse(null);
     }
 
 
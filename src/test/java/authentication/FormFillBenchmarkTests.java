@@ -0,0 +1,88 @@
+package authentication;
+
+import extensions.TestContextExtension;
+import factories.TestUserFactory;
+import infrastructure.DriverFactory;
+import infrastructure.DriverResolutionCache;
+import infrastructure.FormFiller;
+import infrastructure.Forms;
+import models.TestUser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+
+/**
+ * Real browser logins in both fill modes; tagged benchmark, so only {@code -Pbenchmark} runs it.
+ */
+@Tag("benchmark")
+@ExtendWith(TestContextExtension.class)
+public class FormFillBenchmarkTests {
+    private static final int WARMUP_LOGINS = 2;
+    private static final int MEASURED_LOGINS = Integer.getInteger("benchmark.logins", 10);
+
+    @BeforeAll
+    public static void setUpClass() {
+        DriverResolutionCache.setupChromeDriver();
+    }
+
+    @Test
+    public void compareScriptWithKeystrokeLogin() {
+        var testUser = TestUserFactory.createDefault();
+
+        var keystrokes = measure(FormFiller.Mode.KEYSTROKES, testUser);
+        var script = measure(FormFiller.Mode.SCRIPT, testUser);
+
+        Assertions.assertTrue(script.commands() < keystrokes.commands(), String.format(
+                "Per login: script %.1f WebDriver commands in %.0f ms, keystrokes %.1f commands in %.0f ms",
+                script.commands(), script.millis(), keystrokes.commands(), keystrokes.millis()));
+    }
+
+    // Counts from filling the form until the profile shows the user, logging out in between.
+    private static Result measure(FormFiller.Mode mode, TestUser testUser) {
+        var counter = new CommandCounter();
+        WebDriver driver = new EventFiringDecorator<WebDriver>(counter).decorate(DriverFactory.createChromeDriver());
+        try {
+            long commands = 0;
+            long elapsed = 0;
+            for (int i = 0; i < WARMUP_LOGINS + MEASURED_LOGINS; i++) {
+                driver.navigate().to("https://chesstv.local:3000/");
+                driver.findElement(By.xpath("//a[text()='Login']")).click();
+
+                int before = counter.count;
+                long start = System.nanoTime();
+                Forms.login(driver, testUser.getUsername(), testUser.getPassword()).mode(mode).apply();
+                var userName = driver.findElement(By.id("username"));
+                if (i >= WARMUP_LOGINS) {
+                    elapsed += System.nanoTime() - start;
+                    commands += counter.count - before;
+                }
+
+                Assertions.assertEquals(testUser.getUsername(), userName.getText());
+                driver.findElement(By.xpath("//a[text()='Logout']")).click();
+            }
+            return new Result((double) commands / MEASURED_LOGINS, elapsed / 1e6 / MEASURED_LOGINS);
+        } finally {
+            driver.quit();
+        }
+    }
+
+    private record Result(double commands, double millis) {
+    }
+
+    private static class CommandCounter implements WebDriverListener {
+        private int count;
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package authentication;
+
+import extensions.FailureForensicsExtension;
+import extensions.ParallelSetup;
+import extensions.ParallelSetupExtension;
+import extensions.PerfHistoryExtension;
+import extensions.TestContextExtension;
+import extensions.TestSetup;
+import infrastructure.AuthBypassService;
+import infrastructure.DriverResolutionCache;
+import infrastructure.Forms;
+import infrastructure.SessionInjector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.By;
+
+/**
+ * Login flows with browser, user and auth cookie prepared in parallel by {@link ParallelSetupExtension}.
+ */
+@ExtendWith({TestContextExtension.class, ParallelSetupExtension.class, FailureForensicsExtension.class, PerfHistoryExtension.class})
+public class ParallelSetupTests {
+
+    @BeforeAll
+    public static void setUpClass() {
+        DriverResolutionCache.setupChromeDriver();
+    }
+
+    @Test
+    @ParallelSetup(user = ParallelSetup.UserKind.POOLED_REAL_EMAIL, authCookie = true)
+    public void fasterLoginWithCookie(TestSetup setup) {
+        var driver = setup.driver().join();
+        var testUser = setup.user().join();
+
+        SessionInjector.injectAuthCookies(driver, testUser, setup.authCookie().join());
+        driver.navigate().to("https://chesstv.local:3000/profile");
+
+        var userName = driver.findElement(By.id("username"));
+
+        Assertions.assertEquals(testUser.getUsername(), userName.getText());
+
+        var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
+        logoutButton.click();
+    }
+
+    @Test
+    @ParallelSetup(user = ParallelSetup.UserKind.REAL_EMAIL_2FA)
+    public void loginSuccessfully_usingEmailAndBypass2FA(TestSetup setup) {
+        var driver = setup.driver().join();
+        var testUser = setup.user().join();
+        driver.navigate().to("https://chesstv.local:3000/");
+
+        var loginTab = driver.findElement(By.xpath("//a[text()='Login']"));
+        loginTab.click();
+
+        Forms.login(driver, testUser.getEmail(), testUser.getPassword()).apply();
+
+        var twoFaCode = AuthBypassService.generate2FAToken(testUser.getId());
+        Forms.twoFactor(driver, twoFaCode).apply();
+
+        var userName = driver.findElement(By.id("username"));
+
+        Assertions.assertEquals(testUser.getUsername(), userName.getText());
+
+        var logoutButton = driver.findElement(By.xpath("//a[text()='Logout']"));
+        logoutButton.click();
+    }
+}
@@ -0,0 +1,36 @@
+package authentication;
+
+import infrastructure.EmailExtractor;
+import infrastructure.SmsService;
+import infrastructure.TwilioStandIn;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static io.restassured.RestAssured.given;
+
+public class SmsCaptureTests {
+
+    @Test
+    public void smsCodeCaptured_whenSentThroughTwilioMessagesApi() {
+        var standIn = TwilioStandIn.shared();
+        var phone = "5551234567";
+        var sentAfter = Instant.now();
+        var pendingCode = SmsService.waitForSmsAsync(phone, sms -> !sms.receivedAt().isBefore(sentAfter), EmailExtractor.oneTimeCode());
+
+        // The same request the backend's Twilio client makes.
+        var response = given()
+                .baseUri(standIn.baseUrl().toString())
+                .auth().preemptive().basic("ACtest", "token")
+                .formParam("To", "+1" + phone)
+                .formParam("From", "+15550000000")
+                .formParam("Body", "Your login code is 482913")
+                .when()
+                .post("/2010-04-01/Accounts/ACtest/Messages.json");
+
+        Assertions.assertEquals(201, response.statusCode());
+        Assertions.assertEquals("queued", response.jsonPath().getString("status"));
+        Assertions.assertEquals("482913", pendingCode.join());
+    }
+}
@@ -0,0 +1,30 @@
+package factories;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RegistrationDataSetTests {
+    private final RegistrationDataSet dataSet = new RegistrationDataSet(42L, RegistrationDataSet.Mode.SINGLE_FAULT, 1);
+
+    @Test
+    public void shardsPartitionTheDataSet() {
+        var indexes = new ArrayList<Long>();
+        for (int shard = 0; shard < 3; shard++) {
+            dataSet.shard(shard, 3).forEach(registrationCase -> indexes.add(registrationCase.index()));
+        }
+
+        indexes.sort(null);
+        Assertions.assertEquals(dataSet.stream().map(RegistrationDataSet.RegistrationCase::index).toList(), indexes);
+    }
+
+    @Test
+    public void rejectsInvalidShards() {
+        for (var shard : List.of(new int[]{0, 0}, new int[]{0, -1}, new int[]{-1, 3}, new int[]{3, 3}, new int[]{4, 3})) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> dataSet.shard(shard[0], shard[1]),
+                    "shard " + shard[0] + " of " + shard[1]);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package infrastructure;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class FormFillerTests {
+    private final List<String> calls = new ArrayList<>();
+    private Object scriptResult = List.of();
+    private Object[] scriptArguments;
+
+    @Test
+    public void keystrokesReplaceFieldValue() {
+        FormFiller.on(driver())
+                .mode(FormFiller.Mode.KEYSTROKES)
+                .type(FormFiller.Field.id("username"), "johnDoe")
+                .click(FormFiller.Field.xpath("//button"))
+                .apply();
+
+        Assertions.assertEquals(List.of(
+                "findElement By.cssSelector: [id=\"username\"]", "clear", "sendKeys johnDoe",
+                "findElement By.xpath: //button", "click"), calls);
+    }
+
+    @Test
+    public void scriptReceivesStepsInOrder() {
+        FormFiller.on(driver())
+                .mode(FormFiller.Mode.SCRIPT)
+                .type(FormFiller.Field.name("email"), "john@example.com")
+                .check(FormFiller.Field.id("rememberMe"), true)
+                .apply();
+
+        Assertions.assertEquals(List.of("executeScript"), calls);
+        var steps = (List<?>) scriptArguments[0];
+        Assertions.assertEquals(2, steps.size());
+        var type = (Map<?, ?>) steps.get(0);
+        Assertions.assertEquals("type", type.get("action"));
+        Assertions.assertEquals("[name=\"email\"]", type.get("css"));
+        Assertions.assertEquals("john@example.com", type.get("value"));
+        var check = (Map<?, ?>) steps.get(1);
+        Assertions.assertEquals("check", check.get("action"));
+        Assertions.assertEquals(true, check.get("value"));
+    }
+
+    @Test
+    public void scriptReportsMissingFields() {
+        scriptResult = List.of("[id=\"missing\"]");
+
+        var filler = FormFiller.on(driver()).mode(FormFiller.Mode.SCRIPT).type(FormFiller.Field.id("missing"), "x");
+
+        var error = Assertions.assertThrows(NoSuchElementException.class, filler::apply);
+        Assertions.assertTrue(error.getMessage().contains("[id=\"missing\"]"));
+    }
+
+    private WebDriver driver() {
+        var element = (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "sendKeys" -> calls.add("sendKeys " + String.join("", (CharSequence[]) args[0]));
+                        case "isSelected" -> {
+                            calls.add("isSelected");
+                            return false;
+                        }
+                        default -> calls.add(method.getName());
+                    }
+                    return null;
+                });
+
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findElement" -> {
+                        calls.add("findElement " + args[0]);
+                        yield element;
+                    }
+                    case "executeScript" -> {
+                        calls.add("executeScript");
+                        scriptArguments = (Object[]) args[1];
+                        yield scriptResult;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
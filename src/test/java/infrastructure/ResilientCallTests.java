@@ -0,0 +1,45 @@
+package infrastructure;
+
+import com.mailslurp.clients.ApiException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ResilientCallTests {
+
+    @Test
+    public void longPollTimeoutsKeepBreakerClosed() {
+        var calls = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            var error = Assertions.assertThrows(ApiException.class, () -> ResilientCall.longPoll("test-408", () -> {
+                calls.incrementAndGet();
+                throw new ApiException(408, "No matching email");
+            }));
+            Assertions.assertEquals(408, error.getCode());
+        }
+
+        Assertions.assertEquals(10, calls.get());
+        Assertions.assertEquals("email", ResilientCall.longPoll("test-408", () -> "email"));
+    }
+
+    @Test
+    public void transientFailuresOpenBreaker() {
+        var calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(RuntimeException.class, () -> ResilientCall.longPoll("test-io", () -> {
+                calls.incrementAndGet();
+                throw new UncheckedIOException(new IOException("Connection reset"));
+            }));
+        }
+
+        // Default threshold of 5: the breaker opens during the second call's retries and the rest fail fast.
+        Assertions.assertEquals(5, calls.get());
+        Assertions.assertThrows(ResilientCall.CircuitOpenException.class,
+                () -> ResilientCall.longPoll("test-io", () -> "email"));
+    }
+}
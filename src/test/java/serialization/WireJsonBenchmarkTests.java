@@ -0,0 +1,116 @@
+package serialization;
+
+import com.google.gson.Gson;
+import com.mailslurp.models.InboxDto;
+import models.TestUser;
+import models.TwoFA;
+import models.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public class WireJsonBenchmarkTests {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+    // Timer noise allowance: the hand-written adapters must not be measurably slower than reflection.
+    private static final double NOISE_FACTOR = 1.1;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void wireJsonRoundTripsOnlyWireFields() {
+        var user = sampleUser();
+
+        String json = WireJson.toJson(user);
+        var parsed = WireJson.fromJson(json, TestUser.class);
+
+        Assertions.assertFalse(json.contains("userInbox"));
+        Assertions.assertNull(parsed.getUserInbox());
+        user.setUserInbox(null);
+        Assertions.assertEquals(user, parsed);
+        Assertions.assertEquals(gson.fromJson(json, TestUser.class), parsed);
+    }
+
+    @Test
+    public void wireJsonMatchesReflectiveGson() {
+        var user = sampleUser();
+        user.setUserInbox(null);
+        var registration = sampleRegistration();
+
+        Assertions.assertEquals(gson.toJson(user), WireJson.toJson(user));
+        Assertions.assertEquals(gson.toJson(user.getTwoFA()), WireJson.toJson(user.getTwoFA()));
+        Assertions.assertEquals(gson.toJson(registration), WireJson.toJson(registration));
+        Assertions.assertEquals(gson.toJson(registration), gson.toJson(WireJson.fromJson(WireJson.toJson(registration), User.class)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void wireJsonIsNotSlowerThanReflectiveGson() {
+        var user = sampleUser();
+        String wireJson = WireJson.toJson(user);
+
+        double reflectiveWrite = measure(() -> gson.toJson(user));
+        double wireWrite = measure(() -> WireJson.toJson(user));
+        double reflectiveRead = measure(() -> gson.fromJson(wireJson, TestUser.class));
+        double wireRead = measure(() -> WireJson.fromJson(wireJson, TestUser.class));
+
+        Assertions.assertTrue(wireWrite <= reflectiveWrite * NOISE_FACTOR,
+                String.format("TestUser write: wire %.0f ns/op, reflective %.0f ns/op", wireWrite, reflectiveWrite));
+        Assertions.assertTrue(wireRead <= reflectiveRead * NOISE_FACTOR,
+                String.format("TestUser read: wire %.0f ns/op, reflective %.0f ns/op", wireRead, reflectiveRead));
+        Assertions.assertTrue(wireJson.length() < gson.toJson(user).length(), "The wire body leaves out the inbox");
+    }
+
+    private static double measure(Supplier<Object> operation) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        Assertions.assertNotNull(sink);
+        return (double) elapsed / MEASURED_ITERATIONS;
+    }
+
+    private static TestUser sampleUser() {
+        var twoFA = new TwoFA();
+        twoFA.setSecret("JBSWY3DPEHPK3PXP");
+        twoFA.setEnabled(true);
+
+        var inbox = new InboxDto();
+        inbox.setId(UUID.randomUUID());
+        inbox.setEmailAddress("benchmark@mailslurp.com");
+
+        var user = new TestUser();
+        user.setId(42);
+        user.setUsername("benchmarkUser");
+        user.setEmail("benchmark@mailslurp.com");
+        user.setPassword("abcdefghijAa");
+        user.setPhone("5551234567");
+        user.setStatus("active");
+        user.setTwoFA(twoFA);
+        user.setUserInbox(inbox);
+        return user;
+    }
+
+    private static User sampleRegistration() {
+        var user = new User();
+        user.setFirstName("Bench");
+        user.setUserName("benchmarkUser");
+        user.setLastName("Mark");
+        user.setEmail("benchmark@example.com");
+        user.setTelephone("5551234567");
+        user.setPassword("abcdefghijAa");
+        user.setPasswordConfirm("abcdefghijAa");
+        user.setShouldSubscribe(false);
+        user.setAgreedPrivacyPolicy(true);
+        return user;
+    }
+}
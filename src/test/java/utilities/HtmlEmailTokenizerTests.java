@@ -0,0 +1,95 @@
+package utilities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class HtmlEmailTokenizerTests {
+
+    @Test
+    public void decodesNamedAndNumericEntitiesInText() {
+        var text = HtmlEmailTokenizer.textSegments("<p>a &amp; b &lt;c&gt; &quot;d&quot; &apos;e&apos;&nbsp;&#65;&#x42;</p>");
+
+        Assertions.assertEquals(List.of("a & b <c> \"d\" 'e' AB"), text);
+    }
+
+    @Test
+    public void decodesEntitiesInAttributes() {
+        var links = HtmlEmailTokenizer.links("<a href=\"https://chesstv.local/activate?id=1&amp;code=A&#66;&#x43;\">go</a>");
+
+        Assertions.assertEquals(List.of("https://chesstv.local/activate?id=1&code=ABC"), links);
+    }
+
+    @Test
+    public void readsSingleDoubleAndUnquotedAttributes() {
+        var attributes = new ArrayList<Map<String, String>>();
+        HtmlEmailTokenizer.tokenize(
+                "<a href='https://a.test/' title=\"it's\" data-x='say \"hi\"' target=_blank>x</a>",
+                new HtmlEmailTokenizer.Visitor() {
+                    @Override
+                    public boolean onStartTag(String tag, Map<String, String> tagAttributes) {
+                        attributes.add(tagAttributes);
+                        return true;
+                    }
+                });
+
+        Assertions.assertEquals(1, attributes.size());
+        Assertions.assertEquals("https://a.test/", attributes.get(0).get("href"));
+        Assertions.assertEquals("it's", attributes.get(0).get("title"));
+        Assertions.assertEquals("say \"hi\"", attributes.get(0).get("data-x"));
+        Assertions.assertEquals("_blank", attributes.get(0).get("target"));
+    }
+
+    @Test
+    public void skipsScriptStyleAndComments() {
+        var text = HtmlEmailTokenizer.textSegments(
+                "<style>p { color: red }</style><script>var code = 'X';</script><!-- code: Y --><p>code: Z</p>");
+
+        Assertions.assertEquals(List.of("code: Z"), text);
+        Assertions.assertEquals(Optional.of("Z"),
+                HtmlEmailTokenizer.findInText("<!-- code: Y --><p>code: Z</p>", Pattern.compile("code: (\\w)")));
+    }
+
+    @Test
+    public void extractsLinksFromSampleEmail() {
+        String html = ResourcesReader.getFileAsString(HtmlEmailTokenizerTests.class, "sample-email.html");
+
+        var links = HtmlEmailTokenizer.links(html);
+
+        Assertions.assertEquals(List.of(
+                "https://lambdatest.com/",
+                "https://accounts.lambdatest.com/login",
+                "https://www.linkedin.com/company/lambdatest/",
+                "https://facebook.com",
+                "https://twitter.com"), links);
+        Assertions.assertEquals(Optional.of(URI.create("https://accounts.lambdatest.com/login")),
+                HtmlEmailTokenizer.firstLink(html, "accounts.lambdatest.com", "/login"));
+        Assertions.assertEquals(Optional.empty(),
+                HtmlEmailTokenizer.firstLink(html, "chesstv.local", null));
+    }
+
+    @Test
+    public void tokenizesLargeEmailInLinearTime() {
+        int count = 200_000;
+        var html = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            html.append("<p><a href='https://chesstv.local/").append(i).append("'>link ").append(i).append("</a></p>");
+        }
+        html.append("<p>Tom &amp; Jerry</p>");
+
+        // About 12 MB: a scan to the next '&' per segment would take hours, a linear pass about a second.
+        var links = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> HtmlEmailTokenizer.links(html));
+
+        Assertions.assertEquals(count, links.size());
+        Assertions.assertEquals("https://chesstv.local/" + (count - 1), links.get(count - 1));
+        Assertions.assertEquals(Optional.of("Tom & Jerry"),
+                HtmlEmailTokenizer.findInText(html, Pattern.compile("(Tom . Jerry)")));
+    }
+}
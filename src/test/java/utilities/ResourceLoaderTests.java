@@ -0,0 +1,106 @@
+package utilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class ResourceLoaderTests {
+    private static final String SAMPLE = "sample-email.html";
+
+    /**
+     * Loaded from a jar by its own class loader, so resources resolve against that jar.
+     */
+    public static class JarModule {
+    }
+
+    @AfterEach
+    public void resetCache() {
+        ResourceLoader.setMaxCachedBytes(Long.getLong("resources.cacheBytes", 32L * 1024 * 1024));
+        ResourceLoader.clear();
+    }
+
+    @Test
+    public void mapsResourcesOnDisk() throws Exception {
+        Assertions.assertEquals("file", ResourceLoaderTests.class.getResource("/" + SAMPLE).getProtocol());
+
+        var bytes = ResourceLoader.getBytes(ResourceLoaderTests.class, SAMPLE);
+
+        Assertions.assertTrue(bytes.isDirect());
+        Assertions.assertTrue(bytes.isReadOnly());
+        try (InputStream expected = ResourceLoaderTests.class.getResourceAsStream("/" + SAMPLE)) {
+            Assertions.assertEquals(new String(expected.readAllBytes(), StandardCharsets.UTF_8),
+                    ResourceLoader.getText(ResourceLoaderTests.class, SAMPLE).toString());
+        }
+        try (Reader reader = ResourceLoader.openReader(ResourceLoaderTests.class, SAMPLE)) {
+            var streamed = new StringWriter();
+            reader.transferTo(streamed);
+            Assertions.assertEquals(ResourceLoader.getText(ResourceLoaderTests.class, SAMPLE).toString(), streamed.toString());
+        }
+    }
+
+    @Test
+    public void readsJarResourcesAndKeysByResolvedUrl(@TempDir Path directory) throws Exception {
+        try (var loader = jarModule(directory, Map.of(SAMPLE, "<p>from the jar</p>"))) {
+            Class<?> jarModule = loader.loadClass(JarModule.class.getName());
+            Assertions.assertEquals("jar", jarModule.getResource("/" + SAMPLE).getProtocol());
+
+            var fromClasspath = ResourceLoader.getText(ResourceLoaderTests.class, SAMPLE).toString();
+            var fromJar = ResourceLoader.getText(jarModule, SAMPLE).toString();
+
+            Assertions.assertEquals("<p>from the jar</p>", fromJar);
+            Assertions.assertNotEquals(fromJar, fromClasspath);
+            Assertions.assertFalse(ResourceLoader.getBytes(jarModule, SAMPLE).isDirect());
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBeyondCacheBytes(@TempDir Path directory) throws Exception {
+        var resources = Map.of("a.txt", "a".repeat(500), "b.txt", "b".repeat(500), "c.txt", "c".repeat(500));
+        try (var loader = jarModule(directory, resources)) {
+            Class<?> module = loader.loadClass(JarModule.class.getName());
+            // Room for two entries of 500 bytes plus their decoded text at two bytes per char.
+            ResourceLoader.setMaxCachedBytes(2 * 1500);
+
+            CharSequence a = ResourceLoader.getText(module, "a.txt");
+            CharSequence b = ResourceLoader.getText(module, "b.txt");
+            Assertions.assertSame(a, ResourceLoader.getText(module, "a.txt"));
+            CharSequence c = ResourceLoader.getText(module, "c.txt");
+
+            // b was the least recently used entry when c pushed the cache over its limit.
+            Assertions.assertSame(a, ResourceLoader.getText(module, "a.txt"));
+            Assertions.assertSame(c, ResourceLoader.getText(module, "c.txt"));
+            CharSequence reloaded = ResourceLoader.getText(module, "b.txt");
+            Assertions.assertNotSame(b, reloaded);
+            Assertions.assertEquals(b.toString(), reloaded.toString());
+        }
+    }
+
+    private static URLClassLoader jarModule(Path directory, Map<String, String> resources) throws Exception {
+        Path jar = directory.resolve("module.jar");
+        String classEntry = JarModule.class.getName().replace('.', '/') + ".class";
+        try (var output = new JarOutputStream(Files.newOutputStream(jar));
+             InputStream classBytes = JarModule.class.getResourceAsStream("/" + classEntry)) {
+            output.putNextEntry(new JarEntry(classEntry));
+            classBytes.transferTo(output);
+            for (var resource : resources.entrySet()) {
+                output.putNextEntry(new JarEntry(resource.getKey()));
+                output.write(resource.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // No delegation to the application class loader, so JarModule and its resources come from the jar.
+        return new URLClassLoader(new URL[]{jar.toUri().toURL()}, ClassLoader.getPlatformClassLoader());
+    }
+}